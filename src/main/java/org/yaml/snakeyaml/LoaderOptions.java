@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml;
+
+/**
+ * Configuration for loading (the counterpart of DumperOptions)
+ */
+public class LoaderOptions {
+    private boolean errorSnippets = true;
+    private boolean canonicalKeys = false;
+    private boolean directBinding = false;
+
+    /**
+     * Keep the source of the document to show the snippet of the problematic
+     * line in the error messages. The default is true.
+     * 
+     * @param errorSnippets
+     *            false to keep only the position (line, column, index) in the
+     *            Marks. It saves copying and retaining the input when the
+     *            snippets are never shown.
+     */
+    public void setErrorSnippets(boolean errorSnippets) {
+        this.errorSnippets = errorSnippets;
+    }
+
+    public boolean isErrorSnippets() {
+        return errorSnippets;
+    }
+
+    /**
+     * Share the String instances of the repeated keys. The default is false.
+     * 
+     * @param canonicalKeys
+     *            true to take the short plain scalars which are followed by
+     *            ':' from a bounded symbol table in the scanner. The documents
+     *            which repeat the same keys many times allocate less during
+     *            parsing and the loaded data retains one String per key.
+     */
+    public void setCanonicalKeys(boolean canonicalKeys) {
+        this.canonicalKeys = canonicalKeys;
+    }
+
+    public boolean isCanonicalKeys() {
+        return canonicalKeys;
+    }
+
+    /**
+     * Construct the JavaBeans directly from the parser events when a single
+     * document is loaded with a Constructor. The default is false.
+     * 
+     * @param directBinding
+     *            true to populate the JavaBeans and their lists while the
+     *            document is parsed without creating the Nodes for them. The
+     *            other parts of the document (and the parts with anchors,
+     *            aliases or merge keys) are composed as usual. The overridden
+     *            constructJavaBean2ndStep() and constructSequence() of the
+     *            Constructor are not used for the bound parts. The errors are
+     *            found in the order of the document: when a document is both
+     *            malformed and not constructable the first problem is
+     *            reported.
+     */
+    public void setDirectBinding(boolean directBinding) {
+        this.directBinding = directBinding;
+    }
+
+    public boolean isDirectBinding() {
+        return directBinding;
+    }
+}
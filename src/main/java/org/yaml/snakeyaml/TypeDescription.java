@@ -28,13 +28,16 @@ public final class TypeDescription {
     private final Class<? extends Object> type;
     private Tag tag;
     private Map<String, Class<? extends Object>> listProperties;
+    private Map<String, Class<? extends Object>> primitiveListProperties;
     private Map<String, Class<? extends Object>> keyProperties;
     private Map<String, Class<? extends Object>> valueProperties;
+    private int modifications;
 
     public TypeDescription(Class<? extends Object> clazz, Tag tag) {
         this.type = clazz;
         this.tag = tag;
         listProperties = new HashMap<String, Class<? extends Object>>();
+        primitiveListProperties = new HashMap<String, Class<? extends Object>>();
         keyProperties = new HashMap<String, Class<? extends Object>>();
         valueProperties = new HashMap<String, Class<? extends Object>>();
     }
@@ -90,6 +93,7 @@ public final class TypeDescription {
      */
     public void putListPropertyType(String property, Class<? extends Object> type) {
         listProperties.put(property, type);
+        modifications++;
     }
 
     /**
@@ -103,6 +107,37 @@ public final class TypeDescription {
         return listProperties.get(property);
     }
 
+    /**
+     * Specify that the property is a <code>List</code> of primitive values
+     * which is created as a fixed-size PrimitiveList backed by an array (for
+     * instance int.class for a List&lt;Integer&gt;). An empty list is created
+     * as a usual list.
+     * 
+     * @param property
+     *            name of the JavaBean property
+     * @param type
+     *            primitive class of List values
+     */
+    public void putPrimitiveListPropertyType(String property, Class<? extends Object> type) {
+        if (!type.isPrimitive()) {
+            throw new IllegalArgumentException("Primitive class expected: " + type.getName());
+        }
+        primitiveListProperties.put(property, type);
+        modifications++;
+    }
+
+    /**
+     * Get primitive class of List values for provided JavaBean property.
+     * 
+     * @param property
+     *            property name
+     * @return primitive class of List values (null when the property is not a
+     *         PrimitiveList)
+     */
+    public Class<? extends Object> getPrimitiveListPropertyType(String property) {
+        return primitiveListProperties.get(property);
+    }
+
     /**
      * Specify that the property is a type-safe <code>Map</code>.
      * 
@@ -117,6 +152,7 @@ public final class TypeDescription {
             Class<? extends Object> value) {
         keyProperties.put(property, key);
         valueProperties.put(property, value);
+        modifications++;
     }
 
     /**
@@ -141,6 +177,17 @@ public final class TypeDescription {
         return valueProperties.get(property);
     }
 
+    /**
+     * Get the number of the property types which have been put. It changes
+     * when the description is modified, so the information derived from it
+     * can be rebuilt.
+     * 
+     * @return the modification count
+     */
+    public int getModificationCount() {
+        return modifications;
+    }
+
     @Override
     public String toString() {
         return "TypeDescription for " + getType() + " (tag='" + getTag() + "')";
@@ -15,19 +15,24 @@
  */
 package org.yaml.snakeyaml;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 import org.yaml.snakeyaml.DumperOptions.FlowStyle;
 import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.composer.NodeStore;
+import org.yaml.snakeyaml.composer.ParallelComposer;
 import org.yaml.snakeyaml.constructor.BaseConstructor;
 import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.emitter.Emitable;
@@ -39,6 +44,9 @@ import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.parser.Parser;
 import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.query.PathQuery;
+import org.yaml.snakeyaml.reader.ByteBufferReader;
+import org.yaml.snakeyaml.reader.MappedFileReader;
 import org.yaml.snakeyaml.reader.StreamReader;
 import org.yaml.snakeyaml.reader.UnicodeReader;
 import org.yaml.snakeyaml.representer.Representer;
@@ -54,6 +62,7 @@ public class Yaml {
     protected BaseConstructor constructor;
     protected Representer representer;
     protected DumperOptions dumperOptions;
+    protected LoaderOptions loaderOptions;
 
     /**
      * Create Yaml instance. It is safe to create a few instances and use them
@@ -73,6 +82,17 @@ public class Yaml {
         this(new Constructor(), new Representer(), dumperOptions);
     }
 
+    /**
+     * Create Yaml instance.
+     * 
+     * @param loaderOptions
+     *            LoaderOptions to configure incoming documents
+     */
+    public Yaml(LoaderOptions loaderOptions) {
+        this(new Constructor(), new Representer(), new DumperOptions(), loaderOptions,
+                new Resolver());
+    }
+
     /**
      * Create Yaml instance. It is safe to create a few instances and use them
      * in different Threads.
@@ -151,6 +171,26 @@ public class Yaml {
      */
     public Yaml(BaseConstructor constructor, Representer representer, DumperOptions dumperOptions,
             Resolver resolver) {
+        this(constructor, representer, dumperOptions, new LoaderOptions(), resolver);
+    }
+
+    /**
+     * Create Yaml instance. It is safe to create a few instances and use them
+     * in different Threads.
+     * 
+     * @param constructor
+     *            BaseConstructor to construct incoming documents
+     * @param representer
+     *            Representer to emit outgoing objects
+     * @param dumperOptions
+     *            DumperOptions to configure outgoing objects
+     * @param loaderOptions
+     *            LoaderOptions to configure incoming documents
+     * @param resolver
+     *            Resolver to detect implicit type
+     */
+    public Yaml(BaseConstructor constructor, Representer representer, DumperOptions dumperOptions,
+            LoaderOptions loaderOptions, Resolver resolver) {
         if (!constructor.isExplicitPropertyUtils()) {
             constructor.setPropertyUtils(representer.getPropertyUtils());
         } else if (!representer.isExplicitPropertyUtils()) {
@@ -164,6 +204,7 @@ public class Yaml {
         representer.setTimeZone(dumperOptions.getTimeZone());
         this.representer = representer;
         this.dumperOptions = dumperOptions;
+        this.loaderOptions = loaderOptions;
         this.resolver = resolver;
         this.name = "Yaml:" + System.identityHashCode(this);
     }
@@ -366,7 +407,7 @@ public class Yaml {
      * @return parsed object
      */
     public Object load(String yaml) {
-        return loadFromReader(new StreamReader(yaml), Object.class);
+        return loadFromReader(createStreamReader(yaml), Object.class);
     }
 
     /**
@@ -378,7 +419,7 @@ public class Yaml {
      * @return parsed object
      */
     public Object load(InputStream io) {
-        return loadFromReader(new StreamReader(new UnicodeReader(io)), Object.class);
+        return loadFromReader(createStreamReader(new UnicodeReader(io)), Object.class);
     }
 
     /**
@@ -390,7 +431,7 @@ public class Yaml {
      * @return parsed object
      */
     public Object load(Reader io) {
-        return loadFromReader(new StreamReader(io), Object.class);
+        return loadFromReader(createStreamReader(io), Object.class);
     }
 
     /**
@@ -407,7 +448,7 @@ public class Yaml {
      */
     @SuppressWarnings("unchecked")
     public <T> T loadAs(Reader io, Class<T> type) {
-        return (T) loadFromReader(new StreamReader(io), type);
+        return (T) loadFromReader(createStreamReader(io), type);
     }
 
     /**
@@ -424,7 +465,7 @@ public class Yaml {
      */
     @SuppressWarnings("unchecked")
     public <T> T loadAs(String yaml, Class<T> type) {
-        return (T) loadFromReader(new StreamReader(yaml), type);
+        return (T) loadFromReader(createStreamReader(yaml), type);
     }
 
     /**
@@ -441,12 +482,89 @@ public class Yaml {
      */
     @SuppressWarnings("unchecked")
     public <T> T loadAs(InputStream input, Class<T> type) {
-        return (T) loadFromReader(new StreamReader(new UnicodeReader(input)), type);
+        return (T) loadFromReader(createStreamReader(new UnicodeReader(input)), type);
+    }
+
+    /**
+     * Parse the only YAML document in a file and produce the corresponding
+     * Java object. The file is memory mapped and decoded without intermediate
+     * buffers.
+     * 
+     * @param file
+     *            data to load from (BOM is respected and removed)
+     * @return parsed object
+     */
+    public Object load(File file) {
+        return loadAs(file, Object.class);
+    }
+
+    /**
+     * Parse the only YAML document in a file and produce the corresponding
+     * Java object. The file is memory mapped and decoded without intermediate
+     * buffers.
+     * 
+     * @param <T>
+     *            Class is defined by the second argument
+     * @param file
+     *            data to load from (BOM is respected and removed)
+     * @param type
+     *            Class of the object to be created
+     * @return parsed object
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T loadAs(File file, Class<T> type) {
+        MappedFileReader reader = openMappedFile(file);
+        try {
+            return (T) loadFromReader(createStreamReader(reader), type);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new YAMLException(e);
+            }
+        }
+    }
+
+    /**
+     * Parse the only YAML document in a buffer and produce the corresponding
+     * Java object. The bytes between the position and the limit are decoded
+     * without intermediate copies (the position of the buffer is not changed).
+     * 
+     * @param bytes
+     *            data to load from (BOM is respected and removed)
+     * @return parsed object
+     */
+    public Object load(ByteBuffer bytes) {
+        return loadFromReader(createStreamReader(new ByteBufferReader(bytes)), Object.class);
+    }
+
+    private MappedFileReader openMappedFile(File file) {
+        try {
+            return new MappedFileReader(file);
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+    }
+
+    private StreamReader createStreamReader(String yaml) {
+        StreamReader reader = new StreamReader(yaml);
+        reader.setErrorSnippets(loaderOptions.isErrorSnippets());
+        return reader;
+    }
+
+    private StreamReader createStreamReader(Reader yaml) {
+        StreamReader reader = new StreamReader(yaml);
+        reader.setErrorSnippets(loaderOptions.isErrorSnippets());
+        return reader;
     }
 
     private Object loadFromReader(StreamReader sreader, Class<?> type) {
-        Composer composer = new Composer(new ParserImpl(sreader), resolver);
+        ParserImpl parser = new ParserImpl(sreader, loaderOptions);
+        Composer composer = new Composer(parser, resolver);
         constructor.setComposer(composer);
+        if (loaderOptions.isDirectBinding() && constructor instanceof Constructor) {
+            return ((Constructor) constructor).getSingleData(parser, composer, resolver, type);
+        }
         return constructor.getSingleData(type);
     }
 
@@ -460,7 +578,8 @@ public class Yaml {
      *         sequence
      */
     public Iterable<Object> loadAll(Reader yaml) {
-        Composer composer = new Composer(new ParserImpl(new StreamReader(yaml)), resolver);
+        Composer composer = new Composer(new ParserImpl(createStreamReader(yaml), loaderOptions),
+                resolver);
         constructor.setComposer(composer);
         Iterator<Object> result = new Iterator<Object>() {
             public boolean hasNext() {
@@ -517,6 +636,112 @@ public class Yaml {
         return loadAll(new UnicodeReader(yaml));
     }
 
+    /**
+     * Parse all YAML documents in a file and produce corresponding Java
+     * objects. The documents are parsed only when the iterator is invoked. The
+     * file is memory mapped and it is closed as soon as its last chunk is
+     * mapped.
+     * 
+     * @param file
+     *            YAML data to load from (BOM is respected and ignored)
+     * @return an iterator over the parsed Java objects in this file in proper
+     *         sequence
+     */
+    public Iterable<Object> loadAll(File file) {
+        return loadAll(openMappedFile(file));
+    }
+
+    /**
+     * Parse all YAML documents in a buffer and produce corresponding Java
+     * objects. The documents are parsed only when the iterator is invoked.
+     * 
+     * @param bytes
+     *            YAML data to load from (BOM is respected and ignored)
+     * @return an iterator over the parsed Java objects in this buffer in
+     *         proper sequence
+     */
+    public Iterable<Object> loadAll(ByteBuffer bytes) {
+        return loadAll(new ByteBufferReader(bytes));
+    }
+
+    /**
+     * Parse all YAML documents in a String and produce corresponding Java
+     * objects. The documents are scanned, parsed and composed in parallel by
+     * the executor and constructed in the order of the documents when the
+     * iterator is invoked (the constructor is not thread-safe).
+     * 
+     * @see ParallelComposer
+     * @param yaml
+     *            YAML data to load from (BOM must not be present)
+     * @param executor
+     *            the executor for the documents
+     * @return an iterator over the parsed Java objects in this String in proper
+     *         sequence
+     */
+    public Iterable<Object> loadAll(String yaml, Executor executor) {
+        return loadAll(new ParallelComposer(yaml, "'string'", resolver, loaderOptions,
+                executor));
+    }
+
+    /**
+     * Parse all YAML documents in a stream and produce corresponding Java
+     * objects in parallel. The stream is read completely before the documents
+     * are parsed.
+     * 
+     * @see #loadAll(String, Executor)
+     * @param yaml
+     *            YAML data to load from (BOM must not be present)
+     * @param executor
+     *            the executor for the documents
+     * @return an iterator over the parsed Java objects in this stream in proper
+     *         sequence
+     */
+    public Iterable<Object> loadAll(Reader yaml, Executor executor) {
+        StringBuilder buffer = new StringBuilder();
+        char[] chars = new char[8192];
+        try {
+            int length;
+            while ((length = yaml.read(chars)) != -1) {
+                buffer.append(chars, 0, length);
+            }
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+        return loadAll(new ParallelComposer(buffer.toString(), "'reader'", resolver,
+                loaderOptions, executor));
+    }
+
+    private Iterable<Object> loadAll(Iterator<Node> nodes) {
+        return new YamlIterable(new ConstructingIterator(nodes, true));
+    }
+
+    /**
+     * Construct the nodes which are composed separately
+     */
+    private class ConstructingIterator implements Iterator<Object> {
+        private final Iterator<Node> nodes;
+        // the nodes are documents (the root tag applies)
+        private final boolean documents;
+
+        public ConstructingIterator(Iterator<Node> nodes, boolean documents) {
+            this.nodes = nodes;
+            this.documents = documents;
+        }
+
+        public boolean hasNext() {
+            return nodes.hasNext();
+        }
+
+        public Object next() {
+            Node node = nodes.next();
+            return documents ? constructor.getDocumentData(node) : constructor.getData(node);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     /**
      * Parse the first YAML document in a stream and produce the corresponding
      * representation tree. (This is the opposite of the represent() method)
@@ -528,11 +753,27 @@ public class Yaml {
      * @return parsed root Node for the specified YAML document
      */
     public Node compose(Reader yaml) {
-        Composer composer = new Composer(new ParserImpl(new StreamReader(yaml)), resolver);
+        Composer composer = new Composer(new ParserImpl(createStreamReader(yaml), loaderOptions),
+                resolver);
         constructor.setComposer(composer);
         return composer.getSingleNode();
     }
 
+    /**
+     * Parse the only YAML document in a stream and produce the compact
+     * representation which is meant for the huge documents. The nodes can be
+     * constructed with the Node view.
+     * 
+     * @see NodeStore#toNode(int)
+     * @param yaml
+     *            stream of a YAML document
+     * @return the document or null when the stream is empty
+     */
+    public NodeStore composeStore(Reader yaml) {
+        return NodeStore.compose(new ParserImpl(createStreamReader(yaml), loaderOptions),
+                resolver);
+    }
+
     /**
      * Parse all YAML documents in a stream and produce corresponding
      * representation trees.
@@ -543,7 +784,8 @@ public class Yaml {
      * @return parsed root Nodes for all the specified YAML documents
      */
     public Iterable<Node> composeAll(Reader yaml) {
-        final Composer composer = new Composer(new ParserImpl(new StreamReader(yaml)), resolver);
+        final Composer composer = new Composer(new ParserImpl(createStreamReader(yaml),
+                loaderOptions), resolver);
         constructor.setComposer(composer);
         Iterator<Node> result = new Iterator<Node>() {
             public boolean hasNext() {
@@ -561,6 +803,42 @@ public class Yaml {
         return new NodeIterable(result);
     }
 
+    /**
+     * Select the parts of the YAML documents with a path expression (for
+     * instance <code>spec.template.spec.containers[*].image</code>). The
+     * stream is parsed event by event and only the selected parts are
+     * composed.
+     * 
+     * @see PathQuery
+     * @param yaml
+     *            YAML document(s)
+     * @param path
+     *            the path expression
+     * @return the Nodes selected in all the documents
+     */
+    public Iterable<Node> queryNodes(Reader yaml, String path) {
+        PathQuery query = PathQuery.compile(path);
+        return new NodeIterable(query.matcher(new ParserImpl(createStreamReader(yaml),
+                loaderOptions), resolver));
+    }
+
+    /**
+     * Select the parts of the YAML documents with a path expression and
+     * construct them. Only the selected parts are composed and constructed.
+     * 
+     * @see #queryNodes(Reader, String)
+     * @param yaml
+     *            YAML document(s)
+     * @param path
+     *            the path expression
+     * @return the objects selected in all the documents
+     */
+    public Iterable<Object> query(Reader yaml, String path) {
+        // the selected parts are not documents
+        return new YamlIterable(new ConstructingIterator(queryNodes(yaml, path).iterator(),
+                false));
+    }
+
     private static class NodeIterable implements Iterable<Node> {
         private Iterator<Node> iterator;
 
@@ -624,7 +902,7 @@ public class Yaml {
      * @return parsed events
      */
     public Iterable<Event> parse(Reader yaml) {
-        final Parser parser = new ParserImpl(new StreamReader(yaml));
+        final Parser parser = new ParserImpl(createStreamReader(yaml), loaderOptions);
         Iterator<Event> result = new Iterator<Event>() {
             public boolean hasNext() {
                 return parser.peekEvent() != null;
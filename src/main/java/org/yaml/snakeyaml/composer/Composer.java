@@ -127,6 +127,17 @@ public class Composer {
         return node;
     }
 
+    /**
+     * Compose the node which starts at the current event. It is used to
+     * compose a part of a document, the anchors are remembered until the end
+     * of the document.
+     * 
+     * @return the composed node
+     */
+    public Node composeNode() {
+        return composeNode(null);
+    }
+
     private Node composeNode(Node parent) {
         recursiveNodes.add(parent);
         if (parser.checkEvent(Event.ID.Alias)) {
@@ -0,0 +1,571 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.composer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.util.IntStack;
+
+/**
+ * Compact read-only representation of a composed document. The nodes are
+ * kept in the document order in primitive arrays (the kind, the tag id, the
+ * characters of the scalars in a shared pool, the next sibling and the
+ * number of children) instead of a graph of Node objects. It is meant for
+ * the huge documents: the store is several times smaller than the node graph
+ * and it has only a few objects for the garbage collector.
+ * <p>
+ * A node is identified by its index. The children of a collection are
+ * visited with getFirstChild() and getNextSibling(), the keys and the values
+ * of a mapping alternate. An alias is an entry which refers to the anchored
+ * node, the other methods return the properties of the anchored node.
+ * toNode() creates the Node view which can be constructed by the
+ * constructors.
+ * </p>
+ */
+public final class NodeStore {
+    private static final byte SCALAR = 0;
+    private static final byte SEQUENCE = 1;
+    private static final byte MAPPING = 2;
+    private static final byte ALIAS = 3;
+    private static final byte KIND = 3;
+    // the flags of the nodes
+    private static final byte RESOLVED = 4;
+    private static final byte RECURSIVE = 8;
+    private static final byte MERGED = 16;
+    private static final byte REFERENCED = 32;
+    private static final byte OPEN = 64;
+    // the flow style of the collections
+    private static final byte BLOCK = 1;
+    private static final byte FLOW = 2;
+
+    // false when the parser does not provide the marks
+    private final boolean marked;
+    private final String name;
+    private final List<Tag> tags;
+    private final Map<Tag, Integer> tagIds;
+    private int size;
+    private byte[] flags;
+    private byte[] styles;
+    private int[] tagIndices;
+    // the next sibling or -1
+    private int[] next;
+    // the offset of the scalar in the pool or the anchored node of the alias
+    private int[] offsets;
+    // the length of the scalar or the number of the children
+    private int[] lengths;
+    private int[] startIndices;
+    private int[] startLines;
+    private int[] startColumns;
+    private int[] endIndices;
+    private int[] endLines;
+    private int[] endColumns;
+    private char[] pool;
+    private int poolSize;
+
+    private NodeStore(Mark streamStart, int capacity) {
+        this.marked = streamStart != null;
+        this.name = marked ? streamStart.getName() : null;
+        this.tags = new ArrayList<Tag>();
+        this.tagIds = new HashMap<Tag, Integer>();
+        this.flags = new byte[capacity];
+        this.styles = new byte[capacity];
+        this.tagIndices = new int[capacity];
+        this.next = new int[capacity];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+        this.startIndices = new int[capacity];
+        this.startLines = new int[capacity];
+        this.startColumns = new int[capacity];
+        this.endIndices = new int[capacity];
+        this.endLines = new int[capacity];
+        this.endColumns = new int[capacity];
+        this.pool = new char[capacity * 8];
+    }
+
+    /**
+     * Compose a stream which contains a single document
+     *
+     * @param parser
+     *            the source of the events (positioned at the beginning of
+     *            the stream)
+     * @param resolver
+     *            the resolver for the implicit tags
+     * @return the store of the document or null when the stream is empty
+     * @throws ComposerException
+     *             when the stream contains more than one document or an
+     *             undefined alias
+     */
+    public static NodeStore compose(Parser parser, Resolver resolver) {
+        // Drop the STREAM-START event.
+        Event streamStart = parser.getEvent();
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            parser.getEvent();
+            return null;
+        }
+        NodeStore store = new NodeStore(streamStart.getStartMark(), 64);
+        // Drop the DOCUMENT-START event.
+        parser.getEvent();
+        store.composeNodes(parser, resolver);
+        // Drop the DOCUMENT-END event.
+        parser.getEvent();
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            Event event = parser.getEvent();
+            throw new ComposerException("expected a single document in the stream",
+                    store.getStartMark(0), "but found another document", event.getStartMark());
+        }
+        // Drop the STREAM-END event.
+        parser.getEvent();
+        return store;
+    }
+
+    /**
+     * Add the events of the root node (without recursion to support any
+     * depth)
+     */
+    private void composeNodes(Parser parser, Resolver resolver) {
+        Map<String, Integer> anchors = new HashMap<String, Integer>();
+        // the open collections and their last children
+        IntStack open = new IntStack(16);
+        IntStack lastChildren = new IntStack(16);
+        do {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.SequenceEnd) || event.is(Event.ID.MappingEnd)) {
+                int collection = open.pop();
+                lastChildren.pop();
+                flags[collection] &= ~OPEN;
+                setEndMark(collection, event.getEndMark());
+                continue;
+            }
+            int node = add(event, resolver, anchors);
+            if (!open.isEmpty()) {
+                int parent = open.peek();
+                int previous = lastChildren.pop();
+                if (previous >= 0) {
+                    next[previous] = node;
+                }
+                lastChildren.push(node);
+                if ((flags[parent] & KIND) == MAPPING && lengths[parent] % 2 == 0
+                        && Tag.MERGE.equals(getTag(node))) {
+                    flags[parent] |= MERGED;
+                }
+                lengths[parent]++;
+            }
+            if (event.is(Event.ID.SequenceStart) || event.is(Event.ID.MappingStart)) {
+                flags[node] |= OPEN;
+                open.push(node);
+                lastChildren.push(-1);
+            }
+        } while (!open.isEmpty());
+    }
+
+    private int add(Event event, Resolver resolver, Map<String, Integer> anchors) {
+        ensureCapacity();
+        int node = size++;
+        next[node] = -1;
+        lengths[node] = 0;
+        Mark start = event.getStartMark();
+        if (start != null) {
+            startIndices[node] = start.getIndex();
+            startLines[node] = start.getLine();
+            startColumns[node] = start.getColumn();
+        }
+        if (event.is(Event.ID.Alias)) {
+            String anchor = ((AliasEvent) event).getAnchor();
+            Integer target = anchors.get(anchor);
+            if (target == null) {
+                throw new ComposerException(null, null, "found undefined alias " + anchor,
+                        event.getStartMark());
+            }
+            flags[node] = ALIAS;
+            offsets[node] = target;
+            flags[target] |= REFERENCED;
+            if ((flags[target] & OPEN) != 0) {
+                // the alias refers to an ancestor
+                flags[target] |= RECURSIVE;
+            }
+            setEndMark(node, event.getEndMark());
+            return node;
+        }
+        String tag;
+        if (event.is(Event.ID.Scalar)) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            flags[node] = SCALAR;
+            styles[node] = scalar.getStyle() == null ? 0 : (byte) scalar.getStyle().charValue();
+            tag = scalar.getTag();
+            if (tag == null || tag.equals("!")) {
+                setTag(node, resolver.resolve(NodeId.scalar, scalar.getValue(), scalar
+                        .getImplicit().canOmitTagInPlainScalar()));
+            }
+            addValue(node, scalar.getValue());
+            setEndMark(node, event.getEndMark());
+        } else {
+            CollectionStartEvent collection = (CollectionStartEvent) event;
+            Boolean flowStyle = collection.getFlowStyle();
+            styles[node] = flowStyle == null ? 0 : (flowStyle ? FLOW : BLOCK);
+            tag = collection.getTag();
+            NodeId kind;
+            if (event.is(Event.ID.SequenceStart)) {
+                flags[node] = SEQUENCE;
+                kind = NodeId.sequence;
+            } else {
+                flags[node] = MAPPING;
+                kind = NodeId.mapping;
+            }
+            if (tag == null || tag.equals("!")) {
+                setTag(node, resolver.resolve(kind, null, collection.getImplicit()));
+            }
+        }
+        if (tag == null || tag.equals("!")) {
+            flags[node] |= RESOLVED;
+        } else {
+            setTag(node, new Tag(tag));
+        }
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchors.put(anchor, node);
+        }
+        return node;
+    }
+
+    /**
+     * @return the number of the entries (the nodes and the aliases)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the root node of the document (0)
+     */
+    public int getRoot() {
+        return 0;
+    }
+
+    /**
+     * @return true when the entry is an alias (the other methods return the
+     *         properties of the anchored node)
+     */
+    public boolean isAlias(int node) {
+        return (flags[node] & KIND) == ALIAS;
+    }
+
+    /**
+     * @return the anchored node for an alias or the node itself
+     */
+    public int getTarget(int node) {
+        return isAlias(node) ? offsets[node] : node;
+    }
+
+    public NodeId getNodeId(int node) {
+        switch (flags[getTarget(node)] & KIND) {
+        case SCALAR:
+            return NodeId.scalar;
+        case SEQUENCE:
+            return NodeId.sequence;
+        default:
+            return NodeId.mapping;
+        }
+    }
+
+    public Tag getTag(int node) {
+        return tags.get(tagIndices[getTarget(node)]);
+    }
+
+    /**
+     * @return the value of the scalar
+     * @throws IllegalArgumentException
+     *             when the node is not a scalar
+     */
+    public String getValue(int node) {
+        int target = getTarget(node);
+        if ((flags[target] & KIND) != SCALAR) {
+            throw new IllegalArgumentException("Not a scalar: " + node);
+        }
+        return new String(pool, offsets[target], lengths[target]);
+    }
+
+    /**
+     * @return the scalar style (null for plain scalars and collections)
+     */
+    public Character getStyle(int node) {
+        int target = getTarget(node);
+        if ((flags[target] & KIND) != SCALAR || styles[target] == 0) {
+            return null;
+        }
+        return Character.valueOf((char) styles[target]);
+    }
+
+    /**
+     * @return the flow style of the collection (null for scalars)
+     */
+    public Boolean getFlowStyle(int node) {
+        int target = getTarget(node);
+        if ((flags[target] & KIND) == SCALAR || styles[target] == 0) {
+            return null;
+        }
+        return Boolean.valueOf(styles[target] == FLOW);
+    }
+
+    /**
+     * @return the number of the children of the collection (twice the number
+     *         of the entries for a mapping) or 0 for a scalar
+     */
+    public int getChildCount(int node) {
+        int target = getTarget(node);
+        return (flags[target] & KIND) == SCALAR ? 0 : lengths[target];
+    }
+
+    /**
+     * @return the first child (the first key of a mapping) or -1
+     */
+    public int getFirstChild(int node) {
+        int target = getTarget(node);
+        return getChildCount(target) > 0 ? target + 1 : -1;
+    }
+
+    /**
+     * @return the next child of the parent collection or -1
+     */
+    public int getNextSibling(int node) {
+        return next[node];
+    }
+
+    /**
+     * Find the value of a scalar key in a mapping
+     *
+     * @return the value or -1 when the key is not found (or the node is not a
+     *         mapping)
+     */
+    public int getValue(int mapping, String key) {
+        int target = getTarget(mapping);
+        if ((flags[target] & KIND) != MAPPING) {
+            return -1;
+        }
+        for (int child = getFirstChild(target); child >= 0; child = next[next[child]]) {
+            int keyNode = getTarget(child);
+            if ((flags[keyNode] & KIND) == SCALAR && lengths[keyNode] == key.length()
+                    && key.equals(getValue(keyNode))) {
+                return next[child];
+            }
+        }
+        return -1;
+    }
+
+    public Mark getStartMark(int node) {
+        if (!marked) {
+            return null;
+        }
+        return new Mark(name, startIndices[node], startLines[node], startColumns[node], null, 0);
+    }
+
+    public Mark getEndMark(int node) {
+        if (!marked) {
+            return null;
+        }
+        return new Mark(name, endIndices[node], endLines[node], endColumns[node], null, 0);
+    }
+
+    /**
+     * Create the Node view of the node. The children of the collections are
+     * created when they are accessed. The anchored nodes are shared inside
+     * the view. The view is a copy, the changes (for instance the merge of
+     * the mappings in the constructor) do not modify the store.
+     *
+     * @return the node which can be constructed
+     */
+    public Node toNode(int node) {
+        return new View().toNode(node);
+    }
+
+    /**
+     * The nodes created for one call of toNode()
+     */
+    private final class View {
+        private final Map<Integer, Node> referenced = new HashMap<Integer, Node>();
+
+        Node toNode(int entry) {
+            int node = getTarget(entry);
+            boolean shared = (flags[node] & REFERENCED) != 0;
+            if (shared && referenced.containsKey(node)) {
+                return referenced.get(node);
+            }
+            Tag tag = getTag(node);
+            boolean resolved = (flags[node] & RESOLVED) != 0;
+            Mark startMark = getStartMark(node);
+            Mark endMark = getEndMark(node);
+            Node result;
+            switch (flags[node] & KIND) {
+            case SCALAR:
+                result = new ScalarNode(tag, resolved, getValue(node), startMark, endMark,
+                        getStyle(node));
+                break;
+            case SEQUENCE:
+                result = new StoredSequenceNode(this, node, tag, resolved, startMark, endMark,
+                        getFlowStyle(node));
+                break;
+            default:
+                result = new StoredMappingNode(this, node, tag, resolved, startMark, endMark,
+                        getFlowStyle(node));
+            }
+            if ((flags[node] & RECURSIVE) != 0) {
+                result.setTwoStepsConstruction(true);
+            }
+            if (shared) {
+                referenced.put(node, result);
+            }
+            return result;
+        }
+    }
+
+    private final class StoredSequenceNode extends SequenceNode {
+        private View view;
+        private final int node;
+
+        StoredSequenceNode(View view, int node, Tag tag, boolean resolved, Mark startMark,
+                Mark endMark, Boolean flowStyle) {
+            super(tag, resolved, new ArrayList<Node>(lengths[node]), startMark, endMark,
+                    flowStyle);
+            this.view = view;
+            this.node = node;
+        }
+
+        @Override
+        public List<Node> getValue() {
+            List<Node> value = super.getValue();
+            if (view != null) {
+                View items = view;
+                view = null;
+                for (int child = getFirstChild(node); child >= 0; child = next[child]) {
+                    value.add(items.toNode(child));
+                }
+            }
+            return value;
+        }
+    }
+
+    private final class StoredMappingNode extends MappingNode {
+        private View view;
+        private final int node;
+
+        StoredMappingNode(View view, int node, Tag tag, boolean resolved, Mark startMark,
+                Mark endMark, Boolean flowStyle) {
+            super(tag, resolved, new ArrayList<NodeTuple>(lengths[node] / 2), startMark, endMark,
+                    flowStyle);
+            this.view = view;
+            this.node = node;
+            setMerged((flags[node] & MERGED) != 0);
+        }
+
+        @Override
+        public List<NodeTuple> getValue() {
+            List<NodeTuple> value = super.getValue();
+            if (view != null) {
+                View entries = view;
+                view = null;
+                for (int child = getFirstChild(node); child >= 0; child = next[next[child]]) {
+                    value.add(new NodeTuple(entries.toNode(child), entries.toNode(next[child])));
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public void setValue(List<NodeTuple> merge) {
+            view = null;
+            super.setValue(merge);
+        }
+    }
+
+    private void setTag(int node, Tag tag) {
+        Integer id = tagIds.get(tag);
+        if (id == null) {
+            id = tags.size();
+            tags.add(tag);
+            tagIds.put(tag, id);
+        }
+        tagIndices[node] = id;
+    }
+
+    private void addValue(int node, String value) {
+        int length = value.length();
+        if (poolSize + length > pool.length) {
+            char[] chars = new char[Math.max(pool.length * 2, poolSize + length)];
+            System.arraycopy(pool, 0, chars, 0, poolSize);
+            pool = chars;
+        }
+        value.getChars(0, length, pool, poolSize);
+        offsets[node] = poolSize;
+        lengths[node] = length;
+        poolSize += length;
+    }
+
+    private void setEndMark(int node, Mark end) {
+        if (end != null) {
+            endIndices[node] = end.getIndex();
+            endLines[node] = end.getLine();
+            endColumns[node] = end.getColumn();
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size < flags.length) {
+            return;
+        }
+        int capacity = flags.length * 2;
+        flags = copyOf(flags, capacity);
+        styles = copyOf(styles, capacity);
+        tagIndices = copyOf(tagIndices, capacity);
+        next = copyOf(next, capacity);
+        offsets = copyOf(offsets, capacity);
+        lengths = copyOf(lengths, capacity);
+        startIndices = copyOf(startIndices, capacity);
+        startLines = copyOf(startLines, capacity);
+        startColumns = copyOf(startColumns, capacity);
+        endIndices = copyOf(endIndices, capacity);
+        endLines = copyOf(endLines, capacity);
+        endColumns = copyOf(endColumns, capacity);
+    }
+
+    private byte[] copyOf(byte[] data, int capacity) {
+        byte[] copy = new byte[capacity];
+        System.arraycopy(data, 0, copy, 0, size);
+        return copy;
+    }
+
+    private int[] copyOf(int[] data, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(data, 0, copy, 0, size);
+        return copy;
+    }
+}
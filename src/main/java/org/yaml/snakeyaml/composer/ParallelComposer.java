@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.composer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.DocumentSplitter;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.util.ArrayQueue;
+
+/**
+ * Compose the documents of a stream in parallel. The stream is split with
+ * DocumentSplitter and every part is scanned, parsed and composed by a task
+ * of the executor. The nodes are returned in the order of the documents. Only
+ * a limited number of the parts is composed ahead of the consumer.
+ * <p>
+ * The resolver must not be modified while the documents are composed (it is
+ * shared by the tasks). An error is reported when the document which contains
+ * it is requested, the previous documents are returned first.
+ * </p>
+ */
+public class ParallelComposer implements Iterator<Node> {
+    private final DocumentSplitter parts;
+    private final String name;
+    private final Resolver resolver;
+    private final LoaderOptions loaderOptions;
+    private final Executor executor;
+    private final int lookahead;
+    // the parts which are submitted to the executor
+    private final ArrayQueue<FutureTask<List<Node>>> tasks;
+    private int submitted;
+    // the documents of the current part
+    private Iterator<Node> current;
+
+    public ParallelComposer(String data, String name, Resolver resolver,
+            LoaderOptions loaderOptions, Executor executor) {
+        this(data, name, resolver, loaderOptions, executor, 4 * Runtime.getRuntime()
+                .availableProcessors());
+    }
+
+    /**
+     * @param data
+     *            the complete stream
+     * @param name
+     *            the name of the stream for the marks
+     * @param lookahead
+     *            the maximum number of the parts which are submitted before
+     *            they are requested
+     */
+    public ParallelComposer(String data, String name, Resolver resolver,
+            LoaderOptions loaderOptions, Executor executor, int lookahead) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("Lookahead must be positive: " + lookahead);
+        }
+        this.parts = new DocumentSplitter(data);
+        this.name = name;
+        this.resolver = resolver;
+        this.loaderOptions = loaderOptions;
+        this.executor = executor;
+        this.lookahead = lookahead;
+        this.tasks = new ArrayQueue<FutureTask<List<Node>>>(lookahead);
+    }
+
+    public boolean hasNext() {
+        submit();
+        while (current == null || !current.hasNext()) {
+            if (tasks.isEmpty()) {
+                return false;
+            }
+            current = getResult(tasks.remove()).iterator();
+            submit();
+        }
+        return true;
+    }
+
+    public Node next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No document is available.");
+        }
+        return current.next();
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void submit() {
+        while (submitted < parts.size() && tasks.size() < lookahead) {
+            final int part = submitted++;
+            FutureTask<List<Node>> task = new FutureTask<List<Node>>(new Callable<List<Node>>() {
+                public List<Node> call() {
+                    return compose(part);
+                }
+            });
+            tasks.add(task);
+            executor.execute(task);
+        }
+    }
+
+    private List<Node> compose(int part) {
+        StreamReader reader = new StreamReader(parts.getPart(part), name, parts.getIndex(part),
+                parts.getLine(part));
+        reader.setErrorSnippets(loaderOptions.isErrorSnippets());
+        Composer composer = new Composer(new ParserImpl(reader, loaderOptions), resolver);
+        List<Node> nodes = new ArrayList<Node>(1);
+        while (composer.checkNode()) {
+            nodes.add(composer.getNode());
+        }
+        return nodes;
+    }
+
+    private List<Node> getResult(FutureTask<List<Node>> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new YAMLException("Interrupted while waiting for the document.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new YAMLException(cause);
+        }
+    }
+}
@@ -38,8 +38,18 @@ import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.util.PrimitiveList;
 
 public abstract class BaseConstructor {
+    // the kinds of the primitive arrays
+    private static final int LONG = 0;
+    private static final int INT = 1;
+    private static final int SHORT = 2;
+    private static final int BYTE = 3;
+    private static final int DOUBLE = 4;
+    private static final int FLOAT = 5;
+    private static final int OTHER = 6;
+
     /**
      * It maps the node kind to the the Construct implementation. When the
      * runtime class is known then the implicit tag is ignored.
@@ -69,6 +79,7 @@ public abstract class BaseConstructor {
     protected Tag rootTag;
     private PropertyUtils propertyUtils;
     private boolean explicitPropertyUtils;
+    private Boolean constructObjectOverridden;
 
     public BaseConstructor() {
         constructedObjects = new HashMap<Node, Object>();
@@ -101,7 +112,18 @@ public abstract class BaseConstructor {
     public Object getData() {
         // Construct and return the next document.
         composer.checkNode();
-        Node node = composer.getNode();
+        return getDocumentData(composer.getNode());
+    }
+
+    /**
+     * Construct the document which has been composed separately (for instance
+     * by ParallelComposer). The root tag is applied as in getData().
+     * 
+     * @param node
+     *            the root node of the document
+     * @return constructed instance
+     */
+    public Object getDocumentData(Node node) {
         if (rootTag != null) {
             node.setTag(rootTag);
         }
@@ -129,6 +151,18 @@ public abstract class BaseConstructor {
         return null;
     }
 
+    /**
+     * Construct the node which has been composed separately (for instance a
+     * part of a document selected by a query)
+     * 
+     * @param node
+     *            the node to construct
+     * @return constructed instance
+     */
+    public Object getData(Node node) {
+        return constructDocument(node);
+    }
+
     /**
      * Construct complete YAML document. Call the second step in case of
      * recursive structures. At the end cleans all the state.
@@ -139,10 +173,18 @@ public abstract class BaseConstructor {
      */
     private Object constructDocument(Node node) {
         Object data = constructObject(node);
+        finishDocument();
+        return data;
+    }
+
+    /**
+     * Fill the recursive structures and clean the state when all the nodes
+     * of a document are constructed
+     */
+    void finishDocument() {
         fillRecursive();
         constructedObjects.clear();
         recursiveObjects.clear();
-        return data;
     }
 
     private void fillRecursive() {
@@ -188,6 +230,27 @@ public abstract class BaseConstructor {
         return data;
     }
 
+    /**
+     * @return true when a subclass overrides constructObject() (then every
+     *         node must be constructed with it)
+     */
+    boolean overridesConstructObject() {
+        if (constructObjectOverridden == null) {
+            boolean overridden = false;
+            for (Class<?> c = getClass(); c != BaseConstructor.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("constructObject", Node.class);
+                    overridden = true;
+                    break;
+                } catch (NoSuchMethodException e) {
+                    // check the parent
+                }
+            }
+            constructObjectOverridden = Boolean.valueOf(overridden);
+        }
+        return constructObjectOverridden.booleanValue();
+    }
+
     /**
      * Get the constructor to construct the Node. For implicit tags if the
      * runtime class is known a dedicated Construct implementation is used.
@@ -278,59 +341,133 @@ public abstract class BaseConstructor {
 
     protected Object constructArrayStep2(SequenceNode node, Object array) {
         final Class<?> componentType = node.getType().getComponentType();
-
+        if (componentType.isPrimitive()) {
+            constructPrimitiveArray(node.getValue(), array, componentType);
+            return array;
+        }
         int index = 0;
         for (Node child : node.getValue()) {
             // Handle multi-dimensional arrays...
             if (child.getType() == Object.class) {
                 child.setType(componentType);
             }
+            // Non-primitive arrays can simply be assigned:
+            Array.set(array, index++, constructObject(child));
+        }
+        return array;
+    }
 
-            final Object value = constructObject(child);
-
-            if (componentType.isPrimitive()) {
+    /**
+     * Fill the array of primitives. The plain decimal scalars are parsed
+     * straight into the array (without boxing), the other items are
+     * constructed as usual.
+     */
+    void constructPrimitiveArray(List<Node> children, Object array, Class<?> componentType) {
+        final int kind = primitiveKind(componentType);
+        final boolean parse = kind != OTHER && !overridesConstructObject();
+        PrimitiveList<Object> items = null;
+        int index = 0;
+        for (Node child : children) {
+            if (child.getType() == Object.class) {
+                child.setType(componentType);
+            }
+            String plain = parse && child.getType() == componentType ? getPlainScalar(child)
+                    : null;
+            if (plain == null || !setParsed(kind, array, index, plain)) {
+                Object value = constructObject(child);
                 // Null values are disallowed for primitives
                 if (value == null) {
                     throw new NullPointerException("Unable to construct element value for " + child);
                 }
+                if (items == null) {
+                    items = new PrimitiveList<Object>(array);
+                }
+                items.set(index, value);
+            }
+            ++index;
+        }
+    }
 
-                // Primitive arrays require quite a lot of work.
-                if (byte.class.equals(componentType)) {
-                    Array.setByte(array, index, ((Number) value).byteValue());
-
-                } else if (short.class.equals(componentType)) {
-                    Array.setShort(array, index, ((Number) value).shortValue());
-
-                } else if (int.class.equals(componentType)) {
-                    Array.setInt(array, index, ((Number) value).intValue());
-
-                } else if (long.class.equals(componentType)) {
-                    Array.setLong(array, index, ((Number) value).longValue());
-
-                } else if (float.class.equals(componentType)) {
-                    Array.setFloat(array, index, ((Number) value).floatValue());
-
-                } else if (double.class.equals(componentType)) {
-                    Array.setDouble(array, index, ((Number) value).doubleValue());
-
-                } else if (char.class.equals(componentType)) {
-                    Array.setChar(array, index, ((Character) value).charValue());
-
-                } else if (boolean.class.equals(componentType)) {
-                    Array.setBoolean(array, index, ((Boolean) value).booleanValue());
+    private static int primitiveKind(Class<?> type) {
+        if (type == Integer.TYPE) {
+            return INT;
+        } else if (type == Long.TYPE) {
+            return LONG;
+        } else if (type == Double.TYPE) {
+            return DOUBLE;
+        } else if (type == Float.TYPE) {
+            return FLOAT;
+        } else if (type == Short.TYPE) {
+            return SHORT;
+        } else if (type == Byte.TYPE) {
+            return BYTE;
+        } else {
+            // char and boolean
+            return OTHER;
+        }
+    }
 
-                } else {
-                    throw new YAMLException("unexpected primitive type");
-                }
+    /**
+     * Get the value of a scalar item of an array of primitives when the
+     * standard construction of the item is equivalent to parsing the value
+     * as a decimal number.
+     * 
+     * @param node
+     *            the item of the array
+     * @return the value to be parsed or null when the item must be
+     *         constructed as usual
+     */
+    String getPlainScalar(Node node) {
+        return null;
+    }
 
+    /**
+     * Parse a plain decimal value into the array
+     * 
+     * @return false when the value is not a plain decimal number or it does
+     *         not fit into the primitive (then the item is constructed as
+     *         usual to get the same result or the same error)
+     */
+    private static boolean setParsed(int kind, Object array, int index, String value) {
+        if (kind >= DOUBLE) {
+            double number = NumberParser.parsePlainDouble(value);
+            if (Double.isNaN(number)) {
+                return false;
+            }
+            if (kind == DOUBLE) {
+                ((double[]) array)[index] = number;
             } else {
-                // Non-primitive arrays can simply be assigned:
-                Array.set(array, index, value);
+                ((float[]) array)[index] = (float) number;
             }
-
-            ++index;
+            return true;
+        }
+        long number = NumberParser.parsePlainLong(value);
+        switch (kind) {
+        case LONG:
+            if (number == NumberParser.NOT_PARSED) {
+                return false;
+            }
+            ((long[]) array)[index] = number;
+            return true;
+        case INT:
+            if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+                return false;
+            }
+            ((int[]) array)[index] = (int) number;
+            return true;
+        case SHORT:
+            if (number < Short.MIN_VALUE || number > Short.MAX_VALUE) {
+                return false;
+            }
+            ((short[]) array)[index] = (short) number;
+            return true;
+        default:
+            if (number < Byte.MIN_VALUE || number > Byte.MAX_VALUE) {
+                return false;
+            }
+            ((byte[]) array)[index] = (byte) number;
+            return true;
         }
-        return array;
     }
 
     protected Map<Object, Object> createDefaultMap() {
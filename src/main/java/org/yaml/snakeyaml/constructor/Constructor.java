@@ -16,6 +16,7 @@
 package org.yaml.snakeyaml.constructor;
 
 import java.beans.IntrospectionException;
+import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -33,7 +34,9 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.composer.Composer;
 import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.introspector.MissingProperty;
 import org.yaml.snakeyaml.introspector.Property;
 import org.yaml.snakeyaml.nodes.MappingNode;
 import org.yaml.snakeyaml.nodes.Node;
@@ -42,6 +45,9 @@ import org.yaml.snakeyaml.nodes.NodeTuple;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.util.PrimitiveList;
 
 /**
  * Construct a custom Java instance.
@@ -49,6 +55,8 @@ import org.yaml.snakeyaml.nodes.Tag;
 public class Constructor extends SafeConstructor {
     private final Map<Tag, Class<? extends Object>> typeTags;
     protected final Map<Class<? extends Object>, TypeDescription> typeDefinitions;
+    // the analysed properties of the JavaBeans
+    private final Map<Class<? extends Object>, BindingPlan> bindingPlans;
 
     public Constructor() {
         this(Object.class);
@@ -84,6 +92,7 @@ public class Constructor extends SafeConstructor {
         }
         typeTags = new HashMap<Tag, Class<? extends Object>>();
         typeDefinitions = new HashMap<Class<? extends Object>, TypeDescription>();
+        bindingPlans = new HashMap<Class<? extends Object>, BindingPlan>();
         yamlClassConstructors.put(NodeId.scalar, new ConstructScalar());
         yamlClassConstructors.put(NodeId.mapping, new ConstructMapping());
         yamlClassConstructors.put(NodeId.sequence, new ConstructSequence());
@@ -223,6 +232,7 @@ public class Constructor extends SafeConstructor {
         protected Object constructJavaBean2ndStep(MappingNode node, Object object) {
             flattenMapping(node);
             Class<? extends Object> beanType = node.getType();
+            BindingPlan plan = getBindingPlan(beanType);
             List<NodeTuple> nodeValue = node.getValue();
             for (NodeTuple tuple : nodeValue) {
                 ScalarNode keyNode;
@@ -237,73 +247,16 @@ public class Constructor extends SafeConstructor {
                 keyNode.setType(String.class);
                 String key = (String) constructObject(keyNode);
                 try {
-                    Property property = getProperty(beanType, key);
-                    valueNode.setType(property.getType());
-                    TypeDescription memberDescription = typeDefinitions.get(beanType);
-                    boolean typeDetected = false;
-                    if (memberDescription != null) {
-                        switch (valueNode.getNodeId()) {
-                        case sequence:
-                            SequenceNode snode = (SequenceNode) valueNode;
-                            Class<? extends Object> memberType = memberDescription
-                                    .getListPropertyType(key);
-                            if (memberType != null) {
-                                snode.setListType(memberType);
-                                typeDetected = true;
-                            } else if (property.getType().isArray()) {
-                                snode.setListType(property.getType().getComponentType());
-                                typeDetected = true;
-                            }
-                            break;
-                        case mapping:
-                            MappingNode mnode = (MappingNode) valueNode;
-                            Class<? extends Object> keyType = memberDescription.getMapKeyType(key);
-                            if (keyType != null) {
-                                mnode.setTypes(keyType, memberDescription.getMapValueType(key));
-                                typeDetected = true;
-                            }
-                            break;
-                        default: // scalar
-                        }
-                    }
-                    if (!typeDetected && valueNode.getNodeId() != NodeId.scalar) {
-                        // only if there is no explicit TypeDescription
-                        Class<?>[] arguments = property.getActualTypeArguments();
-                        if (arguments != null && arguments.length > 0) {
-                            // type safe (generic) collection may contain the
-                            // proper class
-                            if (valueNode.getNodeId() == NodeId.sequence) {
-                                Class<?> t = arguments[0];
-                                SequenceNode snode = (SequenceNode) valueNode;
-                                snode.setListType(t);
-                            } else if (valueNode.getTag().equals(Tag.SET)) {
-                                Class<?> t = arguments[0];
-                                MappingNode mnode = (MappingNode) valueNode;
-                                mnode.setOnlyKeyType(t);
-                                mnode.setUseClassConstructor(true);
-                            } else if (property.getType().isAssignableFrom(Map.class)) {
-                                Class<?> ketType = arguments[0];
-                                Class<?> valueType = arguments[1];
-                                MappingNode mnode = (MappingNode) valueNode;
-                                mnode.setTypes(ketType, valueType);
-                                mnode.setUseClassConstructor(true);
-                            } else {
-                                // the type for collection entries cannot be
-                                // detected
-                            }
-                        }
-                    }
-
+                    PropertyBinding binding = plan.bind(key, getProperty(beanType, key));
+                    binding.setTypes(valueNode);
                     Object value = constructObject(valueNode);
                     // Correct when the property expects float but double was
                     // constructed
-                    if (property.getType() == Float.TYPE || property.getType() == Float.class) {
-                        if (value instanceof Double) {
-                            value = ((Double) value).floatValue();
-                        }
+                    if (binding.floatType && value instanceof Double) {
+                        value = ((Double) value).floatValue();
                     }
 
-                    property.set(object, value);
+                    binding.property.set(object, value);
                 } catch (Exception e) {
                     throw new ConstructorException("Cannot create property=" + key
                             + " for JavaBean=" + object, node.getStartMark(), e.getMessage(),
@@ -522,9 +475,20 @@ public class Constructor extends SafeConstructor {
             } else if (Collection.class.isAssignableFrom(node.getType())) {
                 if (node.isTwoStepsConstruction()) {
                     return createDefaultList(snode.getValue().size());
-                } else {
-                    return constructSequence(snode);
                 }
+                if (node.getType() == PrimitiveList.class) {
+                    // set by putPrimitiveListPropertyType()
+                    Class<?> itemType = getPrimitiveItemType(snode);
+                    if (itemType != null) {
+                        Object array = Array.newInstance(itemType, snode.getValue().size());
+                        constructPrimitiveArray(snode.getValue(), array, itemType);
+                        return new PrimitiveList<Object>(array);
+                    }
+                    List<Object> list = createDefaultList(snode.getValue().size());
+                    constructSequenceStep2(snode, list);
+                    return list;
+                }
+                return constructSequence(snode);
             } else if (node.getType().isArray()) {
                 if (node.isTwoStepsConstruction()) {
                     return createArray(node.getType(), snode.getValue().size());
@@ -659,4 +623,204 @@ public class Constructor extends SafeConstructor {
     protected Class<?> getClassForName(String name) throws ClassNotFoundException {
         return Class.forName(name);
     }
+
+    /**
+     * @return the primitive class of all the items when the list may be
+     *         created as PrimitiveList (null otherwise)
+     */
+    private Class<?> getPrimitiveItemType(SequenceNode node) {
+        List<Node> items = node.getValue();
+        if (items.isEmpty()) {
+            return null;
+        }
+        Class<?> itemType = items.get(0).getType();
+        if (!itemType.isPrimitive()) {
+            return null;
+        }
+        for (Node item : items) {
+            if (item.getType() != itemType) {
+                return null;
+            }
+        }
+        return itemType;
+    }
+
+    /**
+     * The scalar is parsed directly into an array of primitives when it is
+     * constructed by ConstructScalar with the standard int and float
+     * constructors.
+     */
+    @Override
+    String getPlainScalar(Node node) {
+        if (node.getNodeId() == NodeId.scalar
+                && isExactly(getConstructor(node), ConstructScalar.class)
+                && isExactly(yamlConstructors.get(Tag.INT), ConstructYamlInt.class)
+                && isExactly(yamlConstructors.get(Tag.FLOAT), ConstructYamlFloat.class)) {
+            return ((ScalarNode) node).getValue();
+        }
+        return null;
+    }
+
+    private static boolean isExactly(Construct construct, Class<?> type) {
+        return construct != null && construct.getClass() == type;
+    }
+
+    /**
+     * Ensure that the stream contains a single document and construct it
+     * directly from the events. The Nodes are not created for the JavaBeans
+     * and for the lists, the result is the same as for getSingleData(). When
+     * constructObject() is overridden the document is composed as usual.
+     * 
+     * @see EventBinder
+     * @param parser
+     *            the source of the events (positioned at the beginning of
+     *            the stream)
+     * @param composer
+     *            the composer of the parser for the other parts of the
+     *            document
+     * @param resolver
+     *            the resolver of the composer
+     * @param type
+     *            the type of the document
+     * @return constructed instance
+     */
+    public Object getSingleData(Parser parser, Composer composer, Resolver resolver,
+            Class<?> type) {
+        if (overridesConstructObject()) {
+            return getSingleData(type);
+        }
+        return new EventBinder(this, parser, resolver, composer).getSingleData(type);
+    }
+
+    /**
+     * The bindings are built once per class and property. They are rebuilt
+     * when the TypeDescription of the class is replaced or modified or when
+     * getProperty() returns another Property.
+     */
+    BindingPlan getBindingPlan(Class<? extends Object> beanType) {
+        TypeDescription description = typeDefinitions.get(beanType);
+        BindingPlan plan = bindingPlans.get(beanType);
+        if (plan == null || plan.description != description
+                || description != null
+                && plan.modifications != description.getModificationCount()) {
+            plan = new BindingPlan(description);
+            bindingPlans.put(beanType, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * The bindings of the properties of a JavaBean class
+     */
+    static final class BindingPlan {
+        final TypeDescription description;
+        // the modification count of the description
+        final int modifications;
+        private final Map<String, PropertyBinding> bindings;
+
+        BindingPlan(TypeDescription description) {
+            this.description = description;
+            this.modifications = description == null ? 0 : description.getModificationCount();
+            this.bindings = new HashMap<String, PropertyBinding>();
+        }
+
+        /**
+         * @return the binding of the property (created when the property is
+         *         used for the first time)
+         */
+        PropertyBinding bind(String name, Property property) {
+            PropertyBinding binding = bindings.get(name);
+            // a new MissingProperty is created for every missing key
+            if (binding == null || binding.property != property
+                    && !(property instanceof MissingProperty
+                            && binding.property instanceof MissingProperty)) {
+                binding = new PropertyBinding(property, description, name);
+                bindings.put(name, binding);
+            }
+            return binding;
+        }
+    }
+
+    /**
+     * The types of a JavaBean property which do not depend on the value: the
+     * types of the collection entries are taken from the TypeDescription or
+     * from the type arguments of a generic property.
+     */
+    static final class PropertyBinding {
+        final Property property;
+        // the property expects float but double may be constructed
+        final boolean floatType;
+        // the type of the sequence items (null when it is not known)
+        final Class<? extends Object> itemType;
+        // the list is created as PrimitiveList
+        final boolean primitiveList;
+        // the types of the mapping from the TypeDescription
+        private final Class<? extends Object> keyType;
+        private final Class<? extends Object> valueType;
+        // the type arguments of a generic property (null when not known)
+        private final Class<?>[] arguments;
+        private final boolean mapProperty;
+
+        PropertyBinding(Property property, TypeDescription description, String name) {
+            this.property = property;
+            Class<?> type = property.getType();
+            this.floatType = type == Float.TYPE || type == Float.class;
+            Class<?>[] typeArguments = property.getActualTypeArguments();
+            this.arguments = typeArguments != null && typeArguments.length > 0 ? typeArguments
+                    : null;
+            Class<? extends Object> items = null;
+            boolean primitive = false;
+            if (description != null) {
+                items = description.getPrimitiveListPropertyType(name);
+                primitive = items != null && type.isAssignableFrom(PrimitiveList.class);
+                if (items == null) {
+                    items = description.getListPropertyType(name);
+                }
+                if (items == null && type.isArray()) {
+                    items = type.getComponentType();
+                }
+                this.keyType = description.getMapKeyType(name);
+                this.valueType = keyType == null ? null : description.getMapValueType(name);
+            } else {
+                this.keyType = null;
+                this.valueType = null;
+            }
+            if (items == null && arguments != null) {
+                // type safe (generic) collection may contain the proper class
+                items = arguments[0];
+            }
+            this.itemType = items;
+            this.primitiveList = primitive;
+            this.mapProperty = type.isAssignableFrom(Map.class);
+        }
+
+        void setTypes(Node valueNode) {
+            valueNode.setType(property.getType());
+            switch (valueNode.getNodeId()) {
+            case sequence:
+                if (itemType != null) {
+                    ((SequenceNode) valueNode).setListType(itemType);
+                }
+                if (primitiveList) {
+                    valueNode.setType(PrimitiveList.class);
+                }
+                break;
+            case mapping:
+                MappingNode mnode = (MappingNode) valueNode;
+                if (keyType != null) {
+                    mnode.setTypes(keyType, valueType);
+                } else if (arguments != null) {
+                    if (valueNode.getTag().equals(Tag.SET)) {
+                        mnode.setOnlyKeyType(arguments[0]);
+                        mnode.setUseClassConstructor(true);
+                    } else if (mapProperty) {
+                        mnode.setTypes(arguments[0], arguments[1]);
+                        mnode.setUseClassConstructor(true);
+                    }
+                }
+                break;
+            default: // scalar
+            }
+        }
+    }
 }
@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.constructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.constructor.Constructor.BindingPlan;
+import org.yaml.snakeyaml.constructor.Constructor.PropertyBinding;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.introspector.MissingProperty;
+import org.yaml.snakeyaml.nodes.CollectionNode;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.reader.ReaderException;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Construct a document directly from the parser events. The JavaBeans and the
+ * lists (which are constructed by ConstructMapping and ConstructSequence) are
+ * populated while the events are parsed, no Nodes are created for them. The
+ * other parts of the document (scalars, maps, sets, arrays, the nodes for
+ * the custom constructors) are composed and constructed one by one as usual.
+ * <p>
+ * The anchored nodes and the aliases are always composed (the Composer keeps
+ * the anchors until the end of the document), so the shared and the
+ * recursive objects are constructed as usual. The values of the missing
+ * properties are composed and constructed to keep their anchors. For a merge
+ * key the merged mappings are composed; the explicit keys of the JavaBean
+ * take precedence.
+ * The overridden methods of ConstructMapping and ConstructSequence are
+ * respected because the binder is only used for the exact classes, the
+ * overridden methods of the Constructor which construct the nodes
+ * (constructJavaBean2ndStep(), constructSequence()) are not called.
+ * </p>
+ */
+final class EventBinder {
+    private final Constructor constructor;
+    private final Parser parser;
+    private final Resolver resolver;
+    // compose the parts which are not bound directly
+    private final Composer composer;
+
+    EventBinder(Constructor constructor, Parser parser, Resolver resolver, Composer composer) {
+        this.constructor = constructor;
+        this.parser = parser;
+        this.resolver = resolver;
+        this.composer = composer;
+    }
+
+    /**
+     * Ensure that the stream contains a single document and construct it
+     *
+     * @see BaseConstructor#getSingleData(Class)
+     */
+    Object getSingleData(Class<?> type) {
+        // Drop the STREAM-START event.
+        parser.getEvent();
+        Object data = null;
+        Mark start = null;
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            // Drop the DOCUMENT-START event.
+            parser.getEvent();
+            start = parser.peekEvent().getStartMark();
+            Tag tag = Object.class != type ? new Tag(type) : constructor.rootTag;
+            data = bindNode(null, null, tag);
+            constructor.finishDocument();
+            // Drop the DOCUMENT-END event.
+            parser.getEvent();
+        }
+        // Ensure that the stream contains no more documents.
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            Event event = parser.getEvent();
+            throw new ComposerException("expected a single document in the stream", start,
+                    "but found another document", event.getStartMark());
+        }
+        // Drop the STREAM-END event.
+        parser.getEvent();
+        return data;
+    }
+
+    /**
+     * Construct the node which starts at the current event
+     *
+     * @param binding
+     *            the property of a JavaBean for the value (or null)
+     * @param type
+     *            the runtime class of a list item (or null)
+     * @param tag
+     *            the tag to replace the tag of the node (the root only)
+     * @return the constructed object
+     */
+    private Object bindNode(PropertyBinding binding, Class<? extends Object> type, Tag tag) {
+        Event event = parser.peekEvent();
+        if ((event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart))
+                && ((CollectionStartEvent) event).getAnchor() == null) {
+            CollectionNode shell = createShell((CollectionStartEvent) event);
+            if (tag != null) {
+                shell.setTag(tag);
+            }
+            setTypes(shell, binding, type);
+            Construct construct = constructor.getConstructor(shell);
+            boolean yamlObject = construct.getClass() == Constructor.ConstructYamlObject.class;
+            if (yamlObject) {
+                construct = getClassConstructor(shell);
+            }
+            if (construct != null && isBound(shell, construct, binding)) {
+                try {
+                    if (shell.getNodeId() == NodeId.mapping) {
+                        return bindJavaBean((MappingNode) shell,
+                                (Constructor.ConstructMapping) construct);
+                    } else {
+                        // the item type set by the TypeDescription or by the
+                        // generic property
+                        return bindList((SequenceNode) shell, binding == null ? null
+                                : binding.itemType);
+                    }
+                } catch (MarkedYAMLException e) {
+                    // constructor errors and the errors of the parser
+                    throw e;
+                } catch (ReaderException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    if (!yamlObject) {
+                        throw e;
+                    }
+                    // the same as ConstructYamlObject
+                    throw new ConstructorException(null, null,
+                            "Can't construct a java object for " + shell.getTag()
+                                    + "; exception=" + e.getMessage(), shell.getStartMark(), e);
+                }
+            }
+        }
+        Node node = composer.composeNode();
+        if (tag != null) {
+            node.setTag(tag);
+        }
+        setTypes(node, binding, type);
+        return constructor.constructObject(node);
+    }
+
+    private CollectionNode createShell(CollectionStartEvent event) {
+        String tag = event.getTag();
+        boolean mapping = event.is(Event.ID.MappingStart);
+        NodeId nodeId = mapping ? NodeId.mapping : NodeId.sequence;
+        Tag nodeTag;
+        boolean resolved = false;
+        if (tag == null || tag.equals("!")) {
+            nodeTag = resolver.resolve(nodeId, null, event.getImplicit());
+            resolved = true;
+        } else {
+            nodeTag = new Tag(tag);
+        }
+        if (mapping) {
+            return new MappingNode(nodeTag, resolved, new ArrayList<NodeTuple>(0),
+                    event.getStartMark(), null, event.getFlowStyle());
+        } else {
+            return new SequenceNode(nodeTag, resolved, new ArrayList<Node>(0),
+                    event.getStartMark(), null, event.getFlowStyle());
+        }
+    }
+
+    private void setTypes(Node node, PropertyBinding binding, Class<? extends Object> type) {
+        if (binding != null) {
+            binding.setTypes(node);
+        } else if (type != null) {
+            node.setType(type);
+        }
+    }
+
+    /**
+     * @return the constructor which ConstructYamlObject would use or null when
+     *         the class is not available
+     */
+    private Construct getClassConstructor(Node shell) {
+        try {
+            shell.setType(constructor.getClassForNode(shell));
+        } catch (YAMLException e) {
+            // the composed node reports the problem
+            return null;
+        }
+        return constructor.yamlClassConstructors.get(shell.getNodeId());
+    }
+
+    /**
+     * @return true when the node would be constructed as a JavaBean or as a
+     *         list
+     */
+    private boolean isBound(Node shell, Construct construct, PropertyBinding binding) {
+        Class<? extends Object> type = shell.getType();
+        if (shell.getNodeId() == NodeId.mapping) {
+            return construct.getClass() == Constructor.ConstructMapping.class
+                    && !Properties.class.isAssignableFrom(type)
+                    && !SortedMap.class.isAssignableFrom(type)
+                    && !Map.class.isAssignableFrom(type)
+                    && !SortedSet.class.isAssignableFrom(type)
+                    && !Collection.class.isAssignableFrom(type);
+        } else {
+            return construct.getClass() == Constructor.ConstructSequence.class
+                    && !Set.class.isAssignableFrom(type)
+                    && Collection.class.isAssignableFrom(type)
+                    // the primitive lists are composed to get PrimitiveList
+                    && (binding == null || !binding.primitiveList);
+        }
+    }
+
+    /**
+     * @see Constructor.ConstructMapping#constructJavaBean2ndStep(MappingNode,
+     *      Object)
+     */
+    private Object bindJavaBean(MappingNode shell, Constructor.ConstructMapping construct) {
+        Class<? extends Object> beanType = shell.getType();
+        Object object = construct.createEmptyJavaBean(shell);
+        BindingPlan plan = constructor.getBindingPlan(beanType);
+        // the keys which are already set (a merge does not override them)
+        List<String> keys = new ArrayList<String>();
+        // Drop the MAPPING-START event.
+        parser.getEvent();
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Node keyNode = composer.composeNode();
+            if (!(keyNode instanceof ScalarNode)) {
+                throw new YAMLException("Keys must be scalars but found: " + keyNode);
+            }
+            if (keyNode.getTag().equals(Tag.MERGE)) {
+                merge(shell, construct, plan, object, keyNode, keys);
+                continue;
+            }
+            // keys can only be Strings
+            keyNode.setType(String.class);
+            String key = (String) constructor.constructObject(keyNode);
+            Mark valueMark = parser.peekEvent().getStartMark();
+            try {
+                PropertyBinding binding = plan.bind(key, construct.getProperty(beanType, key));
+                if (binding.property instanceof MissingProperty) {
+                    // the value is dropped but the anchors inside it may be
+                    // used later: compose and construct it as the eager mode
+                    Node valueNode = composer.composeNode();
+                    binding.setTypes(valueNode);
+                    constructor.constructObject(valueNode);
+                } else {
+                    set(binding, object, bindNode(binding, null, null));
+                }
+            } catch (ConstructorException e) {
+                // as in the eager mode every level adds the property
+                throw propertyError(key, object, shell, valueMark, e);
+            } catch (MarkedYAMLException e) {
+                // the scanner, the parser and the composer errors
+                throw e;
+            } catch (ReaderException e) {
+                throw e;
+            } catch (Exception e) {
+                throw propertyError(key, object, shell, valueMark, e);
+            }
+            keys.add(key);
+        }
+        // Drop the MAPPING-END event.
+        parser.getEvent();
+        return object;
+    }
+
+    /**
+     * Set the properties from the merged mappings which are not set yet
+     */
+    private void merge(MappingNode shell, Constructor.ConstructMapping construct,
+            BindingPlan plan, Object object, Node keyNode, List<String> keys) {
+        List<NodeTuple> entries = new ArrayList<NodeTuple>(1);
+        entries.add(new NodeTuple(keyNode, composer.composeNode()));
+        MappingNode merge = new MappingNode(shell.getTag(), true, entries, shell.getStartMark(),
+                null, null);
+        merge.setMerged(true);
+        constructor.flattenMapping(merge);
+        for (NodeTuple tuple : merge.getValue()) {
+            Node mergedKey = tuple.getKeyNode();
+            if (!(mergedKey instanceof ScalarNode)) {
+                throw new YAMLException("Keys must be scalars but found: " + mergedKey);
+            }
+            mergedKey.setType(String.class);
+            String key = (String) constructor.constructObject(mergedKey);
+            if (keys.contains(key)) {
+                continue;
+            }
+            Node valueNode = tuple.getValueNode();
+            try {
+                PropertyBinding binding = plan.bind(key, construct.getProperty(shell.getType(),
+                        key));
+                binding.setTypes(valueNode);
+                set(binding, object, constructor.constructObject(valueNode));
+            } catch (Exception e) {
+                // the value is already composed
+                throw propertyError(key, object, shell, valueNode.getStartMark(), e);
+            }
+            keys.add(key);
+        }
+    }
+
+    private ConstructorException propertyError(String key, Object object, Node shell,
+            Mark valueMark, Exception e) {
+        return new ConstructorException("Cannot create property=" + key + " for JavaBean="
+                + object, shell.getStartMark(), e.getMessage(), valueMark, e);
+    }
+
+    private void set(PropertyBinding binding, Object object, Object value) throws Exception {
+        // Correct when the property expects float but double was constructed
+        if (binding.floatType && value instanceof Double) {
+            value = ((Double) value).floatValue();
+        }
+        binding.property.set(object, value);
+    }
+
+    /**
+     * @see BaseConstructor#constructSequence(SequenceNode)
+     */
+    @SuppressWarnings("unchecked")
+    private Object bindList(SequenceNode shell, Class<? extends Object> itemType) {
+        Class<? extends Object> type = shell.getType();
+        Collection<Object> result;
+        if (List.class.isAssignableFrom(type) && !type.isInterface()) {
+            // the root class may be defined (Vector for instance)
+            try {
+                result = (Collection<Object>) type.newInstance();
+            } catch (Exception e) {
+                throw new YAMLException(e);
+            }
+        } else {
+            result = constructor.createDefaultList(10);
+        }
+        // Drop the SEQUENCE-START event.
+        parser.getEvent();
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            result.add(bindNode(null, itemType, null));
+        }
+        // Drop the SEQUENCE-END event.
+        parser.getEvent();
+        return result;
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.constructor;
+
+/**
+ * Single-pass parsers for the numbers. They return the same values as the
+ * general algorithms of SafeConstructor but they do not create the
+ * intermediate Strings and they detect the overflow instead of catching
+ * NumberFormatException. When a value is unusual (invalid, too big for long,
+ * signs in the digits) the parsers give up and the general algorithm
+ * reports the result or the error.
+ */
+final class NumberParser {
+    // the parser gives up (for parsePlainLong)
+    static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private NumberParser() {
+    }
+
+    static String removeUnderscores(String value) {
+        if (value.indexOf('_') == -1) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch != '_') {
+                builder.append(ch);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Parse !!int: sign, '_', 0b, 0x, 0o and 0 prefixes and the sexagesimal
+     * notation.
+     * 
+     * @return Integer or Long (the narrowest type) or null when the general
+     *         algorithm must be used
+     */
+    static Number parseInteger(String source) {
+        String value = removeUnderscores(source);
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index = 1;
+        }
+        if (index == length) {
+            return null;
+        }
+        int radix = 10;
+        if (value.charAt(index) == '0') {
+            if (index + 1 == length) {
+                return Integer.valueOf(0);
+            }
+            char prefix = value.charAt(index + 1);
+            if (prefix == 'b') {
+                radix = 2;
+                index += 2;
+            } else if (prefix == 'x') {
+                radix = 16;
+                index += 2;
+            } else if (prefix == 'o') {
+                // YAML 1.2 octal
+                radix = 8;
+                index += 2;
+            } else {
+                radix = 8;
+                index += 1;
+            }
+        } else if (value.indexOf(':', index) != -1) {
+            return parseSexagesimal(value, index, negative);
+        }
+        if (index == length) {
+            return null;
+        }
+        // accumulate negatively to reach Long.MIN_VALUE (as Long.parseLong)
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / radix;
+        long result = 0;
+        for (; index < length; index++) {
+            int digit = Character.digit(value.charAt(index), radix);
+            if (digit < 0 || result < multmin) {
+                // invalid or BigInteger
+                return null;
+            }
+            result *= radix;
+            if (result < limit + digit) {
+                return null;
+            }
+            result -= digit;
+        }
+        if (!negative) {
+            result = -result;
+        }
+        if (result >= Integer.MIN_VALUE && result <= Integer.MAX_VALUE) {
+            return Integer.valueOf((int) result);
+        }
+        return Long.valueOf(result);
+    }
+
+    /**
+     * The base 60 value is accumulated in int as in the general algorithm
+     */
+    private static Number parseSexagesimal(String value, int start, boolean negative) {
+        int bes = 1;
+        int val = 0;
+        int end = value.length();
+        while (end > start) {
+            int colon = value.lastIndexOf(':', end - 1);
+            int from = Math.max(colon + 1, start);
+            if (from == end || end - from > 18) {
+                // empty or too long part
+                return null;
+            }
+            long part = 0;
+            for (int i = from; i < end; i++) {
+                char ch = value.charAt(i);
+                if (ch < '0' || ch > '9') {
+                    return null;
+                }
+                part = part * 10 + (ch - '0');
+            }
+            val += part * bes;
+            bes *= 60;
+            end = from - 1;
+        }
+        if (end == start) {
+            // leading ':'
+            return null;
+        }
+        if (!negative) {
+            return Integer.valueOf(val);
+        }
+        return val < 0 ? null : Integer.valueOf(-val);
+    }
+
+    /**
+     * Parse !!float: sign, '_', .inf and .nan
+     * 
+     * @return the value or null when the general algorithm must be used
+     *         (sexagesimal or invalid)
+     */
+    static Double parseFloat(String source) {
+        String value = removeUnderscores(source);
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index = 1;
+        }
+        if (index == length) {
+            return null;
+        }
+        char first = value.charAt(index);
+        if (first == '.' && length - index == 4) {
+            if (value.regionMatches(true, index, ".inf", 0, 4)) {
+                return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            } else if (value.regionMatches(true, index, ".nan", 0, 4)) {
+                return Double.NaN;
+            }
+        }
+        if (((first < '0' || first > '9') && first != '.') || value.indexOf(':', index) != -1) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the value of [-+]?(0|[1-9][0-9]*) with up to 18 digits or
+     *         NOT_PARSED for the other values (octal, hexadecimal,
+     *         sexagesimal or with underscores)
+     */
+    static long parsePlainLong(String value) {
+        int length = value.length();
+        int start = 0;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            start = 1;
+        }
+        if (length == start || length - start > 18
+                || (value.charAt(start) == '0' && length - start > 1)) {
+            return NOT_PARSED;
+        }
+        long number = 0;
+        for (int i = start; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return NOT_PARSED;
+            }
+            number = number * 10 + (ch - '0');
+        }
+        return value.charAt(0) == '-' ? -number : number;
+    }
+
+    /**
+     * @return the value of a number made of digits, '.', exponent and signs
+     *         or NaN for the other values (.inf, .nan, sexagesimal or with
+     *         underscores)
+     */
+    static double parsePlainDouble(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return Double.NaN;
+        }
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (length == start) {
+            return Double.NaN;
+        }
+        char first = value.charAt(start);
+        if ((first < '0' || first > '9') && first != '.') {
+            return Double.NaN;
+        }
+        for (int i = start; i < length; i++) {
+            char ch = value.charAt(i);
+            if ((ch < '0' || ch > '9') && ch != '.' && ch != 'e' && ch != 'E' && ch != '-'
+                    && ch != '+') {
+                return Double.NaN;
+            }
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -179,7 +179,13 @@ public class SafeConstructor extends BaseConstructor {
 
     public class ConstructYamlInt extends AbstractConstruct {
         public Object construct(Node node) {
-            String value = constructScalar((ScalarNode) node).toString().replaceAll("_", "");
+            String source = constructScalar((ScalarNode) node).toString();
+            Number number = NumberParser.parseInteger(source);
+            if (number != null) {
+                return number;
+            }
+            // BigInteger and the invalid values
+            String value = NumberParser.removeUnderscores(source);
             int sign = +1;
             char first = value.charAt(0);
             if (first == '-') {
@@ -197,6 +203,10 @@ public class SafeConstructor extends BaseConstructor {
             } else if (value.startsWith("0x")) {
                 value = value.substring(2);
                 base = 16;
+            } else if (value.startsWith("0o")) {
+                // YAML 1.2 octal
+                value = value.substring(2);
+                base = 8;
             } else if (value.startsWith("0")) {
                 value = value.substring(1);
                 base = 8;
@@ -235,7 +245,13 @@ public class SafeConstructor extends BaseConstructor {
 
     public class ConstructYamlFloat extends AbstractConstruct {
         public Object construct(Node node) {
-            String value = constructScalar((ScalarNode) node).toString().replaceAll("_", "");
+            String source = constructScalar((ScalarNode) node).toString();
+            Double number = NumberParser.parseFloat(source);
+            if (number != null) {
+                return number;
+            }
+            // sexagesimal and the invalid values
+            String value = NumberParser.removeUnderscores(source);
             int sign = +1;
             char first = value.charAt(0);
             if (first == '-') {
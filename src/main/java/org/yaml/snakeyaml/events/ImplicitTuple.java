@@ -23,6 +23,11 @@ package org.yaml.snakeyaml.events;
  * @see <a href="http://pyyaml.org/wiki/PyYAMLDocumentation#Events">Events</a>
  */
 public class ImplicitTuple {
+    public final static ImplicitTuple BOTH = new ImplicitTuple(true, true);
+    public final static ImplicitTuple PLAIN = new ImplicitTuple(true, false);
+    public final static ImplicitTuple NON_PLAIN = new ImplicitTuple(false, true);
+    public final static ImplicitTuple NONE = new ImplicitTuple(false, false);
+
     private final boolean plain;
     private final boolean nonPlain;
 
@@ -31,6 +36,16 @@ public class ImplicitTuple {
         this.nonPlain = nonplain;
     }
 
+    /**
+     * @return the shared (immutable) instance with the given flags
+     */
+    public static ImplicitTuple valueOf(boolean plain, boolean nonPlain) {
+        if (plain) {
+            return nonPlain ? BOTH : PLAIN;
+        }
+        return nonPlain ? NON_PLAIN : NONE;
+    }
+
     /**
      * @return true when tag may be omitted when the scalar is emitted in a
      *         plain style.
@@ -16,6 +16,8 @@
 package org.yaml.snakeyaml.introspector;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
 
 import org.yaml.snakeyaml.error.YAMLException;
 
@@ -27,10 +29,18 @@ import org.yaml.snakeyaml.error.YAMLException;
  * is not possible to have a <code>MethodProperty</code> which has neither
  * setter nor getter.
  * </p>
+ * <p>
+ * The accessor methods are looked up and made accessible once, when the
+ * property is created (PropertyUtils caches the properties of a class). The
+ * access checks are performed on every call only when they cannot be
+ * suppressed (for instance by the security manager).
+ * </p>
  */
 public class MethodProperty extends GenericProperty {
 
     private final PropertyDescriptor property;
+    private final Method readMethod;
+    private final Method writeMethod;
     private final boolean readable;
     private final boolean writable;
 
@@ -39,20 +49,34 @@ public class MethodProperty extends GenericProperty {
                 property.getReadMethod() == null ? null : property.getReadMethod()
                         .getGenericReturnType());
         this.property = property;
-        this.readable = property.getReadMethod() != null;
-        this.writable = property.getWriteMethod() != null;
+        this.readMethod = property.getReadMethod();
+        this.writeMethod = property.getWriteMethod();
+        this.readable = readMethod != null;
+        this.writable = writeMethod != null;
+        // issue 50: the public accessors of a non-public class
+        setAccessible(readMethod);
+        setAccessible(writeMethod);
+    }
+
+    private static void setAccessible(AccessibleObject method) {
+        if (method != null) {
+            try {
+                method.setAccessible(true);
+            } catch (SecurityException e) {
+                // the access is checked on every call
+            }
+        }
     }
 
     @Override
     public void set(Object object, Object value) throws Exception {
-        property.getWriteMethod().invoke(object, value);
+        writeMethod.invoke(object, value);
     }
 
     @Override
     public Object get(Object object) {
         try {
-            property.getReadMethod().setAccessible(true);// issue 50
-            return property.getReadMethod().invoke(object);
+            return readMethod.invoke(object);
         } catch (Exception e) {
             throw new YAMLException("Unable to find getter for property '" + property.getName()
                     + "' on object " + object + ":" + e);
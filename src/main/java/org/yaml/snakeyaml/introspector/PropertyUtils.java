@@ -40,8 +40,9 @@ public class PropertyUtils {
 
     protected Map<String, Property> getPropertiesMap(Class<?> type, BeanAccess bAccess)
             throws IntrospectionException {
-        if (propertiesCache.containsKey(type)) {
-            return propertiesCache.get(type);
+        Map<String, Property> cached = propertiesCache.get(type);
+        if (cached != null) {
+            return cached;
         }
 
         Map<String, Property> properties = new LinkedHashMap<String, Property>();
@@ -96,8 +97,9 @@ public class PropertyUtils {
 
     public Set<Property> getProperties(Class<? extends Object> type, BeanAccess bAccess)
             throws IntrospectionException {
-        if (readableProperties.containsKey(type)) {
-            return readableProperties.get(type);
+        Set<Property> cached = readableProperties.get(type);
+        if (cached != null) {
+            return cached;
         }
         Set<Property> properties = createPropertySet(type, bAccess);
         readableProperties.put(type, properties);
@@ -62,13 +62,13 @@ public class MappingNode extends CollectionNode {
     }
 
     public void setOnlyKeyType(Class<? extends Object> keyType) {
-        for (NodeTuple nodes : value) {
+        for (NodeTuple nodes : getValue()) {
             nodes.getKeyNode().setType(keyType);
         }
     }
 
     public void setTypes(Class<? extends Object> keyType, Class<? extends Object> valueType) {
-        for (NodeTuple nodes : value) {
+        for (NodeTuple nodes : getValue()) {
             nodes.getValueNode().setType(valueType);
             nodes.getKeyNode().setType(keyType);
         }
@@ -57,7 +57,7 @@ public class SequenceNode extends CollectionNode {
     }
 
     public void setListType(Class<? extends Object> listType) {
-        for (Node node : value) {
+        for (Node node : getValue()) {
             node.setType(listType);
         }
     }
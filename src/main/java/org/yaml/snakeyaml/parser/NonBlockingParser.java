@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.parser;
+
+import java.nio.ByteBuffer;
+
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.reader.FeedReader;
+import org.yaml.snakeyaml.reader.NeedMoreInputException;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+/**
+ * Push-based parser for the input which arrives in chunks (for instance from
+ * a non-blocking socket). The bytes are given with feed() and endOfInput(),
+ * the events are taken with nextEvent() as soon as they are complete. It
+ * never blocks: when the fed data is not enough for the next event
+ * nextEvent() returns null and needsInput() is true.
+ * 
+ * <pre>
+ * parser.feed(buffer);
+ * Event event;
+ * while ((event = parser.nextEvent()) != null) {
+ *     handle(event);
+ * }
+ * </pre>
+ * 
+ * When the input is exhausted in the middle of an event the parser goes back
+ * to the beginning of the event and scans it again when more data arrives.
+ * The state is saved only when the parser moves to the next event. To keep
+ * the total work linear for very large events (a scalar of megabytes fed in
+ * small chunks) an event which has already consumed more than
+ * RETRY_THRESHOLD characters is retried only when the fed data has grown by
+ * half of the event (or the input is over). Such an event may be reported a
+ * few chunks after its last byte arrives; the smaller events are reported as
+ * soon as they are complete.
+ */
+public final class NonBlockingParser {
+    /**
+     * The events up to this number of characters are retried after every
+     * chunk
+     */
+    public static final int RETRY_THRESHOLD = 8192;
+
+    private final FeedReader input;
+    private StreamReader reader;
+    private ParserImpl parser;
+    private boolean needsInput;
+    private boolean done;
+    // the state at the beginning of the current event is saved
+    private boolean saved;
+    // the number of the fed bytes required for the next attempt
+    private long retryAt;
+
+    public NonBlockingParser() {
+        this.input = new FeedReader();
+        this.reader = null;
+        this.parser = null;
+        this.needsInput = true;
+        this.done = false;
+        this.saved = false;
+        this.retryAt = 0;
+    }
+
+    /**
+     * Add the next chunk of the stream.
+     * 
+     * @param bytes
+     *            the data between the position and the limit is consumed. The
+     *            buffer may be reused after the call.
+     */
+    public void feed(ByteBuffer bytes) {
+        input.feed(bytes);
+        needsInput = false;
+    }
+
+    /**
+     * Report that the stream is over. After this call nextEvent() returns the
+     * rest of the events (or fails if the stream is incomplete).
+     */
+    public void endOfInput() {
+        input.endOfInput();
+        needsInput = false;
+    }
+
+    /**
+     * Get the next event.
+     * 
+     * @return the next complete event or null when more input is required (or
+     *         the stream is already over)
+     * @throws ParserException
+     *             Thrown in case of malformed input.
+     */
+    public Event nextEvent() {
+        if (done) {
+            return null;
+        }
+        if (parser == null) {
+            if (!input.isReady()) {
+                needsInput = true;
+                return null;
+            }
+            try {
+                reader = new StreamReader(input);
+                parser = new ParserImpl(reader);
+            } catch (NeedMoreInputException e) {
+                // the characters are not complete yet
+                needsInput = true;
+                return null;
+            }
+        }
+        // when the input is over no rollback is required
+        boolean rollback = !input.isEnded();
+        if (rollback) {
+            if (input.getFedBytes() < retryAt) {
+                // the large event is scanned again when enough data arrives
+                needsInput = true;
+                return null;
+            }
+            if (!saved) {
+                parser.saveState();
+                saved = true;
+            }
+        }
+        try {
+            Event event = parser.getEvent();
+            saved = false;
+            retryAt = 0;
+            if (event.is(Event.ID.StreamEnd)) {
+                done = true;
+            }
+            return event;
+        } catch (NeedMoreInputException e) {
+            parser.restoreState();
+            needsInput = true;
+            int scanned = reader.getSavedLength();
+            retryAt = scanned > RETRY_THRESHOLD ? input.getFedBytes() + scanned / 2 : 0;
+            return null;
+        }
+    }
+
+    /**
+     * @return true when nextEvent() cannot produce an event until more data is
+     *         fed
+     */
+    public boolean needsInput() {
+        return needsInput;
+    }
+
+    /**
+     * @return true when the end of the stream is returned by nextEvent()
+     */
+    public boolean isDone() {
+        return done;
+    }
+}
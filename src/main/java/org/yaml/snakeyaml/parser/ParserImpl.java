@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.yaml.snakeyaml.DumperOptions.Version;
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.error.Mark;
 import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.events.AliasEvent;
@@ -36,7 +37,6 @@ import org.yaml.snakeyaml.events.StreamEndEvent;
 import org.yaml.snakeyaml.events.StreamStartEvent;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.reader.StreamReader;
-import org.yaml.snakeyaml.scanner.Scanner;
 import org.yaml.snakeyaml.scanner.ScannerImpl;
 import org.yaml.snakeyaml.tokens.AliasToken;
 import org.yaml.snakeyaml.tokens.AnchorToken;
@@ -49,6 +49,7 @@ import org.yaml.snakeyaml.tokens.TagToken;
 import org.yaml.snakeyaml.tokens.TagTuple;
 import org.yaml.snakeyaml.tokens.Token;
 import org.yaml.snakeyaml.util.ArrayStack;
+import org.yaml.snakeyaml.util.IntStack;
 
 /**
  * <pre>
@@ -120,20 +121,54 @@ public final class ParserImpl implements Parser {
         DEFAULT_TAGS.put("!!", Tag.PREFIX);
     }
 
-    private final Scanner scanner;
+    // the grammar states (the productions of the LL(1) parser)
+    private static final int END = -1;
+    private static final int STREAM_START = 0;
+    private static final int IMPLICIT_DOCUMENT_START = 1;
+    private static final int DOCUMENT_START = 2;
+    private static final int DOCUMENT_END = 3;
+    private static final int DOCUMENT_CONTENT = 4;
+    private static final int BLOCK_NODE = 5;
+    private static final int BLOCK_SEQUENCE_FIRST_ENTRY = 6;
+    private static final int BLOCK_SEQUENCE_ENTRY = 7;
+    private static final int INDENTLESS_SEQUENCE_ENTRY = 8;
+    private static final int BLOCK_MAPPING_FIRST_KEY = 9;
+    private static final int BLOCK_MAPPING_KEY = 10;
+    private static final int BLOCK_MAPPING_VALUE = 11;
+    private static final int FLOW_SEQUENCE_FIRST_ENTRY = 12;
+    private static final int FLOW_SEQUENCE_ENTRY = 13;
+    private static final int FLOW_SEQUENCE_ENTRY_MAPPING_KEY = 14;
+    private static final int FLOW_SEQUENCE_ENTRY_MAPPING_VALUE = 15;
+    private static final int FLOW_SEQUENCE_ENTRY_MAPPING_END = 16;
+    private static final int FLOW_MAPPING_FIRST_KEY = 17;
+    private static final int FLOW_MAPPING_KEY = 18;
+    private static final int FLOW_MAPPING_VALUE = 19;
+    private static final int FLOW_MAPPING_EMPTY_VALUE = 20;
+
+    private final ScannerImpl scanner;
     private Event currentEvent;
-    private final ArrayStack<Production> states;
+    private final IntStack states;
     private final ArrayStack<Mark> marks;
-    private Production state;
+    private int state;
     private VersionTagsTuple directives;
+    // the state remembered by saveState()
+    private IntStack savedStates;
+    private ArrayStack<Mark> savedMarks;
+    private Event savedEvent;
+    private int savedState;
+    private VersionTagsTuple savedDirectives;
 
     public ParserImpl(StreamReader reader) {
-        this.scanner = new ScannerImpl(reader);
+        this(reader, new LoaderOptions());
+    }
+
+    public ParserImpl(StreamReader reader, LoaderOptions options) {
+        this.scanner = new ScannerImpl(reader, options);
         currentEvent = null;
         directives = new VersionTagsTuple(null, new HashMap<String, String>(DEFAULT_TAGS));
-        states = new ArrayStack<Production>(100);
+        states = new IntStack(100);
         marks = new ArrayStack<Mark>(10);
-        state = new ParseStreamStart();
+        state = STREAM_START;
     }
 
     /**
@@ -154,8 +189,8 @@ public final class ParserImpl implements Parser {
      */
     public Event peekEvent() {
         if (currentEvent == null) {
-            if (state != null) {
-                currentEvent = state.produce();
+            if (state != END) {
+                currentEvent = produce(state);
             }
         }
         return currentEvent;
@@ -171,6 +206,140 @@ public final class ParserImpl implements Parser {
         return value;
     }
 
+    /**
+     * Skip the events of the next node (a scalar, an alias or a whole
+     * collection).
+     * <p>
+     * The skipped data is still scanned and parsed (every token, mark and
+     * event is created and the syntax errors are reported). Only the values
+     * of the scalars nested in a skipped collection are not built, so it is
+     * only slightly faster than reading the events.
+     * </p>
+     * 
+     * @throws ParserException
+     *             Thrown in case of malformed input.
+     * @throws IllegalStateException
+     *             if the next event does not start a node
+     */
+    public void skipNode() {
+        Event event = peekEvent();
+        if (event == null
+                || !(event.is(Event.ID.Scalar) || event.is(Event.ID.Alias)
+                        || event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart))) {
+            throw new IllegalStateException("The next event does not start a node: " + event);
+        }
+        getEvent();
+        if (event.is(Event.ID.Scalar) || event.is(Event.ID.Alias)) {
+            return;
+        }
+        // the skipped collection is not in marks yet
+        if (state == INDENTLESS_SEQUENCE_ENTRY) {
+            scanner.skipValues(marks.size() + 1, scanner.peekToken().getStartMark().getColumn());
+        } else {
+            scanner.skipValues(marks.size() + 1, -1);
+        }
+        try {
+            int level = 1;
+            while (level > 0) {
+                event = getEvent();
+                if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                    level++;
+                } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                    level--;
+                }
+            }
+        } finally {
+            scanner.skipValues(0, -1);
+        }
+    }
+
+    /**
+     * Remember the state of the parser together with the state of the
+     * scanner. It is used by NonBlockingParser to produce the event again when
+     * the input is exhausted in the middle of it.
+     */
+    void saveState() {
+        if (savedStates == null) {
+            savedStates = new IntStack(100);
+            savedMarks = new ArrayStack<Mark>(10);
+        }
+        savedStates.copyFrom(states);
+        savedMarks.copyFrom(marks);
+        savedEvent = currentEvent;
+        savedState = state;
+        savedDirectives = directives;
+        scanner.saveState();
+    }
+
+    /**
+     * Go back to the state remembered by saveState()
+     */
+    void restoreState() {
+        if (savedStates == null) {
+            throw new YAMLException("The state is not saved.");
+        }
+        states.copyFrom(savedStates);
+        marks.copyFrom(savedMarks);
+        currentEvent = savedEvent;
+        state = savedState;
+        directives = savedDirectives;
+        scanner.restoreState();
+    }
+
+    /**
+     * Apply the grammar rule of the given state to the next input token
+     * 
+     * @see http://en.wikipedia.org/wiki/LL_parser
+     */
+    private Event produce(int production) {
+        switch (production) {
+        case STREAM_START:
+            return parseStreamStart();
+        case IMPLICIT_DOCUMENT_START:
+            return parseImplicitDocumentStart();
+        case DOCUMENT_START:
+            return parseDocumentStart();
+        case DOCUMENT_END:
+            return parseDocumentEnd();
+        case DOCUMENT_CONTENT:
+            return parseDocumentContent();
+        case BLOCK_NODE:
+            return parseNode(true, false);
+        case BLOCK_SEQUENCE_FIRST_ENTRY:
+            return parseBlockSequenceFirstEntry();
+        case BLOCK_SEQUENCE_ENTRY:
+            return parseBlockSequenceEntry();
+        case INDENTLESS_SEQUENCE_ENTRY:
+            return parseIndentlessSequenceEntry();
+        case BLOCK_MAPPING_FIRST_KEY:
+            return parseBlockMappingFirstKey();
+        case BLOCK_MAPPING_KEY:
+            return parseBlockMappingKey();
+        case BLOCK_MAPPING_VALUE:
+            return parseBlockMappingValue();
+        case FLOW_SEQUENCE_FIRST_ENTRY:
+            return parseFlowSequenceFirstEntry();
+        case FLOW_SEQUENCE_ENTRY:
+            return parseFlowSequenceEntry(false);
+        case FLOW_SEQUENCE_ENTRY_MAPPING_KEY:
+            return parseFlowSequenceEntryMappingKey();
+        case FLOW_SEQUENCE_ENTRY_MAPPING_VALUE:
+            return parseFlowSequenceEntryMappingValue();
+        case FLOW_SEQUENCE_ENTRY_MAPPING_END:
+            return parseFlowSequenceEntryMappingEnd();
+        case FLOW_MAPPING_FIRST_KEY:
+            return parseFlowMappingFirstKey();
+        case FLOW_MAPPING_KEY:
+            return parseFlowMappingKey(false);
+        case FLOW_MAPPING_VALUE:
+            return parseFlowMappingValue();
+        case FLOW_MAPPING_EMPTY_VALUE:
+            return parseFlowMappingEmptyValue();
+        default:
+            throw new YAMLException("Unexpected parser state: " + production);
+        }
+    }
+
     /**
      * <pre>
      * stream    ::= STREAM-START implicit_document? explicit_document* STREAM-END
@@ -178,106 +347,94 @@ public final class ParserImpl implements Parser {
      * explicit_document ::= DIRECTIVE* DOCUMENT-START block_node? DOCUMENT-END*
      * </pre>
      */
-    private class ParseStreamStart implements Production {
-        public Event produce() {
-            // Parse the stream start.
-            StreamStartToken token = (StreamStartToken) scanner.getToken();
-            Event event = new StreamStartEvent(token.getStartMark(), token.getEndMark());
+    private Event parseStreamStart() {
+        // Parse the stream start.
+        StreamStartToken token = (StreamStartToken) scanner.getToken();
+        Event event = new StreamStartEvent(token.getStartMark(), token.getEndMark());
+        // Prepare the next state.
+        state = IMPLICIT_DOCUMENT_START;
+        return event;
+    }
+
+    private Event parseImplicitDocumentStart() {
+        // Parse an implicit document.
+        if (!scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.StreamEnd)) {
+            directives = new VersionTagsTuple(null, DEFAULT_TAGS);
+            Token token = scanner.peekToken();
+            Mark startMark = token.getStartMark();
+            Mark endMark = startMark;
+            Event event = new DocumentStartEvent(startMark, endMark, false, null, null);
             // Prepare the next state.
-            state = new ParseImplicitDocumentStart();
+            states.push(DOCUMENT_END);
+            state = BLOCK_NODE;
             return event;
+        } else {
+            return parseDocumentStart();
         }
     }
 
-    private class ParseImplicitDocumentStart implements Production {
-        public Event produce() {
-            // Parse an implicit document.
-            if (!scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.StreamEnd)) {
-                directives = new VersionTagsTuple(null, DEFAULT_TAGS);
-                Token token = scanner.peekToken();
-                Mark startMark = token.getStartMark();
-                Mark endMark = startMark;
-                Event event = new DocumentStartEvent(startMark, endMark, false, null, null);
-                // Prepare the next state.
-                states.push(new ParseDocumentEnd());
-                state = new ParseBlockNode();
-                return event;
-            } else {
-                Production p = new ParseDocumentStart();
-                return p.produce();
-            }
+    private Event parseDocumentStart() {
+        // Parse any extra document end indicators.
+        while (scanner.checkToken(Token.ID.DocumentEnd)) {
+            scanner.getToken();
         }
-    }
-
-    private class ParseDocumentStart implements Production {
-        public Event produce() {
-            // Parse any extra document end indicators.
-            while (scanner.checkToken(Token.ID.DocumentEnd)) {
-                scanner.getToken();
+        // Parse an explicit document.
+        Event event;
+        if (!scanner.checkToken(Token.ID.StreamEnd)) {
+            Token token = scanner.peekToken();
+            Mark startMark = token.getStartMark();
+            VersionTagsTuple tuple = processDirectives();
+            if (!scanner.checkToken(Token.ID.DocumentStart)) {
+                throw new ParserException(null, null, "expected '<document start>', but found "
+                        + scanner.peekToken().getTokenId(), scanner.peekToken().getStartMark());
             }
-            // Parse an explicit document.
-            Event event;
-            if (!scanner.checkToken(Token.ID.StreamEnd)) {
-                Token token = scanner.peekToken();
-                Mark startMark = token.getStartMark();
-                VersionTagsTuple tuple = processDirectives();
-                if (!scanner.checkToken(Token.ID.DocumentStart)) {
-                    throw new ParserException(null, null, "expected '<document start>', but found "
-                            + scanner.peekToken().getTokenId(), scanner.peekToken().getStartMark());
-                }
-                token = scanner.getToken();
-                Mark endMark = token.getEndMark();
-                event = new DocumentStartEvent(startMark, endMark, true, tuple.getVersion(),
-                        tuple.getTags());
-                states.push(new ParseDocumentEnd());
-                state = new ParseDocumentContent();
-            } else {
-                // Parse the end of the stream.
-                StreamEndToken token = (StreamEndToken) scanner.getToken();
-                event = new StreamEndEvent(token.getStartMark(), token.getEndMark());
-                if (!states.isEmpty()) {
-                    throw new YAMLException("Unexpected end of stream. States left: " + states);
-                }
-                if (!marks.isEmpty()) {
-                    throw new YAMLException("Unexpected end of stream. Marks left: " + marks);
-                }
-                state = null;
+            token = scanner.getToken();
+            Mark endMark = token.getEndMark();
+            event = new DocumentStartEvent(startMark, endMark, true, tuple.getVersion(),
+                    tuple.getTags());
+            states.push(DOCUMENT_END);
+            state = DOCUMENT_CONTENT;
+        } else {
+            // Parse the end of the stream.
+            StreamEndToken token = (StreamEndToken) scanner.getToken();
+            event = new StreamEndEvent(token.getStartMark(), token.getEndMark());
+            if (!states.isEmpty()) {
+                throw new YAMLException("Unexpected end of stream. States left: " + states);
             }
-            return event;
+            if (!marks.isEmpty()) {
+                throw new YAMLException("Unexpected end of stream. Marks left: " + marks);
+            }
+            state = END;
         }
+        return event;
     }
 
-    private class ParseDocumentEnd implements Production {
-        public Event produce() {
-            // Parse the document end.
-            Token token = scanner.peekToken();
-            Mark startMark = token.getStartMark();
-            Mark endMark = startMark;
-            boolean explicit = false;
-            if (scanner.checkToken(Token.ID.DocumentEnd)) {
-                token = scanner.getToken();
-                endMark = token.getEndMark();
-                explicit = true;
-            }
-            Event event = new DocumentEndEvent(startMark, endMark, explicit);
-            // Prepare the next state.
-            state = new ParseDocumentStart();
-            return event;
+    private Event parseDocumentEnd() {
+        // Parse the document end.
+        Token token = scanner.peekToken();
+        Mark startMark = token.getStartMark();
+        Mark endMark = startMark;
+        boolean explicit = false;
+        if (scanner.checkToken(Token.ID.DocumentEnd)) {
+            token = scanner.getToken();
+            endMark = token.getEndMark();
+            explicit = true;
         }
+        Event event = new DocumentEndEvent(startMark, endMark, explicit);
+        // Prepare the next state.
+        state = DOCUMENT_START;
+        return event;
     }
 
-    private class ParseDocumentContent implements Production {
-        public Event produce() {
-            Event event;
-            if (scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart,
-                    Token.ID.DocumentEnd, Token.ID.StreamEnd)) {
-                event = processEmptyScalar(scanner.peekToken().getStartMark());
-                state = states.pop();
-                return event;
-            } else {
-                Production p = new ParseBlockNode();
-                return p.produce();
-            }
+    private Event parseDocumentContent() {
+        Event event;
+        if (scanner.checkToken(Token.ID.Directive, Token.ID.DocumentStart, Token.ID.DocumentEnd,
+                Token.ID.StreamEnd)) {
+            event = processEmptyScalar(scanner.peekToken().getStartMark());
+            state = states.pop();
+            return event;
+        } else {
+            return parseNode(true, false);
         }
     }
 
@@ -354,12 +511,6 @@ public final class ParserImpl implements Parser {
      * </pre>
      */
 
-    private class ParseBlockNode implements Production {
-        public Event produce() {
-            return parseNode(true, false);
-        }
-    }
-
     private Event parseFlowNode() {
         return parseNode(false, false);
     }
@@ -427,18 +578,18 @@ public final class ParserImpl implements Parser {
                 endMark = scanner.peekToken().getEndMark();
                 event = new SequenceStartEvent(anchor, tag, implicit, startMark, endMark,
                         Boolean.FALSE);
-                state = new ParseIndentlessSequenceEntry();
+                state = INDENTLESS_SEQUENCE_ENTRY;
             } else {
                 if (scanner.checkToken(Token.ID.Scalar)) {
                     ScalarToken token = (ScalarToken) scanner.getToken();
                     endMark = token.getEndMark();
                     ImplicitTuple implicitValues;
                     if ((token.getPlain() && tag == null) || "!".equals(tag)) {
-                        implicitValues = new ImplicitTuple(true, false);
+                        implicitValues = ImplicitTuple.PLAIN;
                     } else if (tag == null) {
-                        implicitValues = new ImplicitTuple(false, true);
+                        implicitValues = ImplicitTuple.NON_PLAIN;
                     } else {
-                        implicitValues = new ImplicitTuple(false, false);
+                        implicitValues = ImplicitTuple.NONE;
                     }
                     event = new ScalarEvent(anchor, tag, implicitValues, token.getValue(),
                             startMark, endMark, token.getStyle());
@@ -447,27 +598,27 @@ public final class ParserImpl implements Parser {
                     endMark = scanner.peekToken().getEndMark();
                     event = new SequenceStartEvent(anchor, tag, implicit, startMark, endMark,
                             Boolean.TRUE);
-                    state = new ParseFlowSequenceFirstEntry();
+                    state = FLOW_SEQUENCE_FIRST_ENTRY;
                 } else if (scanner.checkToken(Token.ID.FlowMappingStart)) {
                     endMark = scanner.peekToken().getEndMark();
                     event = new MappingStartEvent(anchor, tag, implicit, startMark, endMark,
                             Boolean.TRUE);
-                    state = new ParseFlowMappingFirstKey();
+                    state = FLOW_MAPPING_FIRST_KEY;
                 } else if (block && scanner.checkToken(Token.ID.BlockSequenceStart)) {
                     endMark = scanner.peekToken().getStartMark();
                     event = new SequenceStartEvent(anchor, tag, implicit, startMark, endMark,
                             Boolean.FALSE);
-                    state = new ParseBlockSequenceFirstEntry();
+                    state = BLOCK_SEQUENCE_FIRST_ENTRY;
                 } else if (block && scanner.checkToken(Token.ID.BlockMappingStart)) {
                     endMark = scanner.peekToken().getStartMark();
                     event = new MappingStartEvent(anchor, tag, implicit, startMark, endMark,
                             Boolean.FALSE);
-                    state = new ParseBlockMappingFirstKey();
+                    state = BLOCK_MAPPING_FIRST_KEY;
                 } else if (anchor != null || tag != null) {
                     // Empty scalars are allowed even if a tag or an anchor is
                     // specified.
-                    event = new ScalarEvent(anchor, tag, new ImplicitTuple(implicit, false), "",
-                            startMark, endMark, (char) 0);
+                    event = new ScalarEvent(anchor, tag, implicit ? ImplicitTuple.PLAIN
+                            : ImplicitTuple.NONE, "", startMark, endMark, (char) 0);
                     state = states.pop();
                 } else {
                     String node;
@@ -489,112 +640,98 @@ public final class ParserImpl implements Parser {
     // block_sequence ::= BLOCK-SEQUENCE-START (BLOCK-ENTRY block_node?)*
     // BLOCK-END
 
-    private class ParseBlockSequenceFirstEntry implements Production {
-        public Event produce() {
-            Token token = scanner.getToken();
-            marks.push(token.getStartMark());
-            return new ParseBlockSequenceEntry().produce();
-        }
+    private Event parseBlockSequenceFirstEntry() {
+        Token token = scanner.getToken();
+        marks.push(token.getStartMark());
+        return parseBlockSequenceEntry();
     }
 
-    private class ParseBlockSequenceEntry implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.BlockEntry)) {
-                BlockEntryToken token = (BlockEntryToken) scanner.getToken();
-                if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockSequenceEntry());
-                    return new ParseBlockNode().produce();
-                } else {
-                    state = new ParseBlockSequenceEntry();
-                    return processEmptyScalar(token.getEndMark());
-                }
-            }
-            if (!scanner.checkToken(Token.ID.BlockEnd)) {
-                Token token = scanner.peekToken();
-                throw new ParserException("while parsing a block collection", marks.pop(),
-                        "expected <block end>, but found " + token.getTokenId(),
-                        token.getStartMark());
+    private Event parseBlockSequenceEntry() {
+        if (scanner.checkToken(Token.ID.BlockEntry)) {
+            BlockEntryToken token = (BlockEntryToken) scanner.getToken();
+            if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.BlockEnd)) {
+                states.push(BLOCK_SEQUENCE_ENTRY);
+                return parseNode(true, false);
+            } else {
+                state = BLOCK_SEQUENCE_ENTRY;
+                return processEmptyScalar(token.getEndMark());
             }
-            Token token = scanner.getToken();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = states.pop();
-            marks.pop();
-            return event;
         }
+        if (!scanner.checkToken(Token.ID.BlockEnd)) {
+            Token token = scanner.peekToken();
+            throw new ParserException("while parsing a block collection", marks.pop(),
+                    "expected <block end>, but found " + token.getTokenId(), token.getStartMark());
+        }
+        Token token = scanner.getToken();
+        Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = states.pop();
+        marks.pop();
+        return event;
     }
 
     // indentless_sequence ::= (BLOCK-ENTRY block_node?)+
 
-    private class ParseIndentlessSequenceEntry implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.BlockEntry)) {
-                Token token = scanner.getToken();
-                if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.Key, Token.ID.Value,
-                        Token.ID.BlockEnd)) {
-                    states.push(new ParseIndentlessSequenceEntry());
-                    return new ParseBlockNode().produce();
-                } else {
-                    state = new ParseIndentlessSequenceEntry();
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseIndentlessSequenceEntry() {
+        if (scanner.checkToken(Token.ID.BlockEntry)) {
+            Token token = scanner.getToken();
+            if (!scanner.checkToken(Token.ID.BlockEntry, Token.ID.Key, Token.ID.Value,
+                    Token.ID.BlockEnd)) {
+                states.push(INDENTLESS_SEQUENCE_ENTRY);
+                return parseNode(true, false);
+            } else {
+                state = INDENTLESS_SEQUENCE_ENTRY;
+                return processEmptyScalar(token.getEndMark());
             }
-            Token token = scanner.peekToken();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = states.pop();
-            return event;
         }
+        Token token = scanner.peekToken();
+        Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = states.pop();
+        return event;
     }
 
-    private class ParseBlockMappingFirstKey implements Production {
-        public Event produce() {
-            Token token = scanner.getToken();
-            marks.push(token.getStartMark());
-            return new ParseBlockMappingKey().produce();
-        }
+    private Event parseBlockMappingFirstKey() {
+        Token token = scanner.getToken();
+        marks.push(token.getStartMark());
+        return parseBlockMappingKey();
     }
 
-    private class ParseBlockMappingKey implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Key)) {
-                Token token = scanner.getToken();
-                if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockMappingValue());
-                    return parseBlockNodeOrIndentlessSequence();
-                } else {
-                    state = new ParseBlockMappingValue();
-                    return processEmptyScalar(token.getEndMark());
-                }
-            }
-            if (!scanner.checkToken(Token.ID.BlockEnd)) {
-                Token token = scanner.peekToken();
-                throw new ParserException("while parsing a block mapping", marks.pop(),
-                        "expected <block end>, but found " + token.getTokenId(),
-                        token.getStartMark());
-            }
+    private Event parseBlockMappingKey() {
+        if (scanner.checkToken(Token.ID.Key)) {
             Token token = scanner.getToken();
-            Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
-            state = states.pop();
-            marks.pop();
-            return event;
+            if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
+                states.push(BLOCK_MAPPING_VALUE);
+                return parseBlockNodeOrIndentlessSequence();
+            } else {
+                state = BLOCK_MAPPING_VALUE;
+                return processEmptyScalar(token.getEndMark());
+            }
+        }
+        if (!scanner.checkToken(Token.ID.BlockEnd)) {
+            Token token = scanner.peekToken();
+            throw new ParserException("while parsing a block mapping", marks.pop(),
+                    "expected <block end>, but found " + token.getTokenId(), token.getStartMark());
         }
+        Token token = scanner.getToken();
+        Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
+        state = states.pop();
+        marks.pop();
+        return event;
     }
 
-    private class ParseBlockMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
-                Token token = scanner.getToken();
-                if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
-                    states.push(new ParseBlockMappingKey());
-                    return parseBlockNodeOrIndentlessSequence();
-                } else {
-                    state = new ParseBlockMappingKey();
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseBlockMappingValue() {
+        if (scanner.checkToken(Token.ID.Value)) {
+            Token token = scanner.getToken();
+            if (!scanner.checkToken(Token.ID.Key, Token.ID.Value, Token.ID.BlockEnd)) {
+                states.push(BLOCK_MAPPING_KEY);
+                return parseBlockNodeOrIndentlessSequence();
+            } else {
+                state = BLOCK_MAPPING_KEY;
+                return processEmptyScalar(token.getEndMark());
             }
-            state = new ParseBlockMappingKey();
-            Token token = scanner.peekToken();
-            return processEmptyScalar(token.getStartMark());
         }
+        state = BLOCK_MAPPING_KEY;
+        Token token = scanner.peekToken();
+        return processEmptyScalar(token.getStartMark());
     }
 
     /**
@@ -610,90 +747,74 @@ public final class ParserImpl implements Parser {
      * generate an inline mapping (set syntax).
      * </pre>
      */
-    private class ParseFlowSequenceFirstEntry implements Production {
-        public Event produce() {
-            Token token = scanner.getToken();
-            marks.push(token.getStartMark());
-            return new ParseFlowSequenceEntry(true).produce();
-        }
+    private Event parseFlowSequenceFirstEntry() {
+        Token token = scanner.getToken();
+        marks.push(token.getStartMark());
+        return parseFlowSequenceEntry(true);
     }
 
-    private class ParseFlowSequenceEntry implements Production {
-        private boolean first = false;
-
-        public ParseFlowSequenceEntry(boolean first) {
-            this.first = first;
-        }
-
-        public Event produce() {
-            if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
-                if (!first) {
-                    if (scanner.checkToken(Token.ID.FlowEntry)) {
-                        scanner.getToken();
-                    } else {
-                        Token token = scanner.peekToken();
-                        throw new ParserException("while parsing a flow sequence", marks.pop(),
-                                "expected ',' or ']', but got " + token.getTokenId(),
-                                token.getStartMark());
-                    }
-                }
-                if (scanner.checkToken(Token.ID.Key)) {
+    private Event parseFlowSequenceEntry(boolean first) {
+        if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
+            if (!first) {
+                if (scanner.checkToken(Token.ID.FlowEntry)) {
+                    scanner.getToken();
+                } else {
                     Token token = scanner.peekToken();
-                    Event event = new MappingStartEvent(null, null, true, token.getStartMark(),
-                            token.getEndMark(), Boolean.TRUE);
-                    state = new ParseFlowSequenceEntryMappingKey();
-                    return event;
-                } else if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
-                    states.push(new ParseFlowSequenceEntry(false));
-                    return parseFlowNode();
+                    throw new ParserException("while parsing a flow sequence", marks.pop(),
+                            "expected ',' or ']', but got " + token.getTokenId(),
+                            token.getStartMark());
                 }
             }
-            Token token = scanner.getToken();
-            Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
-            state = states.pop();
-            marks.pop();
-            return event;
+            if (scanner.checkToken(Token.ID.Key)) {
+                Token token = scanner.peekToken();
+                Event event = new MappingStartEvent(null, null, true, token.getStartMark(),
+                        token.getEndMark(), Boolean.TRUE);
+                state = FLOW_SEQUENCE_ENTRY_MAPPING_KEY;
+                return event;
+            } else if (!scanner.checkToken(Token.ID.FlowSequenceEnd)) {
+                states.push(FLOW_SEQUENCE_ENTRY);
+                return parseFlowNode();
+            }
         }
+        Token token = scanner.getToken();
+        Event event = new SequenceEndEvent(token.getStartMark(), token.getEndMark());
+        state = states.pop();
+        marks.pop();
+        return event;
     }
 
-    private class ParseFlowSequenceEntryMappingKey implements Production {
-        public Event produce() {
-            Token token = scanner.getToken();
-            if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
-                states.push(new ParseFlowSequenceEntryMappingValue());
-                return parseFlowNode();
-            } else {
-                state = new ParseFlowSequenceEntryMappingValue();
-                return processEmptyScalar(token.getEndMark());
-            }
+    private Event parseFlowSequenceEntryMappingKey() {
+        Token token = scanner.getToken();
+        if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
+            states.push(FLOW_SEQUENCE_ENTRY_MAPPING_VALUE);
+            return parseFlowNode();
+        } else {
+            state = FLOW_SEQUENCE_ENTRY_MAPPING_VALUE;
+            return processEmptyScalar(token.getEndMark());
         }
     }
 
-    private class ParseFlowSequenceEntryMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
-                Token token = scanner.getToken();
-                if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
-                    states.push(new ParseFlowSequenceEntryMappingEnd());
-                    return parseFlowNode();
-                } else {
-                    state = new ParseFlowSequenceEntryMappingEnd();
-                    return processEmptyScalar(token.getEndMark());
-                }
+    private Event parseFlowSequenceEntryMappingValue() {
+        if (scanner.checkToken(Token.ID.Value)) {
+            Token token = scanner.getToken();
+            if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowSequenceEnd)) {
+                states.push(FLOW_SEQUENCE_ENTRY_MAPPING_END);
+                return parseFlowNode();
             } else {
-                state = new ParseFlowSequenceEntryMappingEnd();
-                Token token = scanner.peekToken();
-                return processEmptyScalar(token.getStartMark());
+                state = FLOW_SEQUENCE_ENTRY_MAPPING_END;
+                return processEmptyScalar(token.getEndMark());
             }
+        } else {
+            state = FLOW_SEQUENCE_ENTRY_MAPPING_END;
+            Token token = scanner.peekToken();
+            return processEmptyScalar(token.getStartMark());
         }
     }
 
-    private class ParseFlowSequenceEntryMappingEnd implements Production {
-        public Event produce() {
-            state = new ParseFlowSequenceEntry(false);
-            Token token = scanner.peekToken();
-            return new MappingEndEvent(token.getStartMark(), token.getEndMark());
-        }
+    private Event parseFlowSequenceEntryMappingEnd() {
+        state = FLOW_SEQUENCE_ENTRY;
+        Token token = scanner.peekToken();
+        return new MappingEndEvent(token.getStartMark(), token.getEndMark());
     }
 
     /**
@@ -705,82 +826,68 @@ public final class ParserImpl implements Parser {
      *   flow_mapping_entry    ::= flow_node | KEY flow_node? (VALUE flow_node?)?
      * </pre>
      */
-    private class ParseFlowMappingFirstKey implements Production {
-        public Event produce() {
-            Token token = scanner.getToken();
-            marks.push(token.getStartMark());
-            return new ParseFlowMappingKey(true).produce();
-        }
+    private Event parseFlowMappingFirstKey() {
+        Token token = scanner.getToken();
+        marks.push(token.getStartMark());
+        return parseFlowMappingKey(true);
     }
 
-    private class ParseFlowMappingKey implements Production {
-        private boolean first = false;
-
-        public ParseFlowMappingKey(boolean first) {
-            this.first = first;
-        }
-
-        public Event produce() {
-            if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
-                if (!first) {
-                    if (scanner.checkToken(Token.ID.FlowEntry)) {
-                        scanner.getToken();
-                    } else {
-                        Token token = scanner.peekToken();
-                        throw new ParserException("while parsing a flow mapping", marks.pop(),
-                                "expected ',' or '}', but got " + token.getTokenId(),
-                                token.getStartMark());
-                    }
-                }
-                if (scanner.checkToken(Token.ID.Key)) {
-                    Token token = scanner.getToken();
-                    if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry,
-                            Token.ID.FlowMappingEnd)) {
-                        states.push(new ParseFlowMappingValue());
-                        return parseFlowNode();
-                    } else {
-                        state = new ParseFlowMappingValue();
-                        return processEmptyScalar(token.getEndMark());
-                    }
-                } else if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
-                    states.push(new ParseFlowMappingEmptyValue());
-                    return parseFlowNode();
+    private Event parseFlowMappingKey(boolean first) {
+        if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
+            if (!first) {
+                if (scanner.checkToken(Token.ID.FlowEntry)) {
+                    scanner.getToken();
+                } else {
+                    Token token = scanner.peekToken();
+                    throw new ParserException("while parsing a flow mapping", marks.pop(),
+                            "expected ',' or '}', but got " + token.getTokenId(),
+                            token.getStartMark());
                 }
             }
-            Token token = scanner.getToken();
-            Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
-            state = states.pop();
-            marks.pop();
-            return event;
-        }
-    }
-
-    private class ParseFlowMappingValue implements Production {
-        public Event produce() {
-            if (scanner.checkToken(Token.ID.Value)) {
+            if (scanner.checkToken(Token.ID.Key)) {
                 Token token = scanner.getToken();
-                if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowMappingEnd)) {
-                    states.push(new ParseFlowMappingKey(false));
+                if (!scanner.checkToken(Token.ID.Value, Token.ID.FlowEntry,
+                        Token.ID.FlowMappingEnd)) {
+                    states.push(FLOW_MAPPING_VALUE);
                     return parseFlowNode();
                 } else {
-                    state = new ParseFlowMappingKey(false);
+                    state = FLOW_MAPPING_VALUE;
                     return processEmptyScalar(token.getEndMark());
                 }
-            } else {
-                state = new ParseFlowMappingKey(false);
-                Token token = scanner.peekToken();
-                return processEmptyScalar(token.getStartMark());
+            } else if (!scanner.checkToken(Token.ID.FlowMappingEnd)) {
+                states.push(FLOW_MAPPING_EMPTY_VALUE);
+                return parseFlowNode();
             }
         }
+        Token token = scanner.getToken();
+        Event event = new MappingEndEvent(token.getStartMark(), token.getEndMark());
+        state = states.pop();
+        marks.pop();
+        return event;
     }
 
-    private class ParseFlowMappingEmptyValue implements Production {
-        public Event produce() {
-            state = new ParseFlowMappingKey(false);
-            return processEmptyScalar(scanner.peekToken().getStartMark());
+    private Event parseFlowMappingValue() {
+        if (scanner.checkToken(Token.ID.Value)) {
+            Token token = scanner.getToken();
+            if (!scanner.checkToken(Token.ID.FlowEntry, Token.ID.FlowMappingEnd)) {
+                states.push(FLOW_MAPPING_KEY);
+                return parseFlowNode();
+            } else {
+                state = FLOW_MAPPING_KEY;
+                return processEmptyScalar(token.getEndMark());
+            }
+        } else {
+            state = FLOW_MAPPING_KEY;
+            Token token = scanner.peekToken();
+            return processEmptyScalar(token.getStartMark());
         }
     }
 
+    private Event parseFlowMappingEmptyValue() {
+        state = FLOW_MAPPING_KEY;
+        return processEmptyScalar(scanner.peekToken().getStartMark());
+    }
+
     /**
      * <pre>
      * block_mapping     ::= BLOCK-MAPPING_START
@@ -790,6 +897,6 @@ public final class ParserImpl implements Parser {
      * </pre>
      */
     private Event processEmptyScalar(Mark mark) {
-        return new ScalarEvent(null, null, new ImplicitTuple(true, false), "", mark, mark, (char) 0);
+        return new ScalarEvent(null, null, ImplicitTuple.PLAIN, "", mark, mark, (char) 0);
     }
 }
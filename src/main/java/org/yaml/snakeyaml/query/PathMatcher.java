@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.query;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Evaluate a PathQuery while the events are parsed. Only the matched nodes
+ * are composed, the other parts of the documents are skipped event by event
+ * (with ParserImpl.skipNode() when it is possible).
+ * <p>
+ * The nodes are returned in the document order. A node inside a matched node
+ * is not returned separately (for instance <code>..*</code> returns the root
+ * only). Aliases in a matched node can only refer to the anchors defined in
+ * the matched nodes of the same document because the skipped parts are not
+ * composed.
+ * </p>
+ */
+public class PathMatcher implements Iterator<Node> {
+    private final PathQuery query;
+    private final Parser parser;
+    private final Resolver resolver;
+    private final long matched;
+    private Composer composer;
+    // the active steps of the open collections
+    private long[] activeSteps;
+    // the index of the next item of the open sequences (-1 for mappings)
+    private int[] indices;
+    private int depth;
+    private Node next;
+
+    public PathMatcher(PathQuery query, Parser parser, Resolver resolver) {
+        this.query = query;
+        this.parser = parser;
+        this.resolver = resolver;
+        this.matched = query.matchedBit();
+        this.activeSteps = new long[16];
+        this.indices = new int[16];
+        this.depth = 0;
+    }
+
+    public boolean hasNext() {
+        if (next == null) {
+            next = find();
+        }
+        return next != null;
+    }
+
+    public Node next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more matched nodes.");
+        }
+        Node node = next;
+        next = null;
+        return node;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the next matched node or null at the end of the stream
+     */
+    private Node find() {
+        while (parser.peekEvent() != null) {
+            long active;
+            if (depth == 0) {
+                if (parser.checkEvent(Event.ID.StreamStart)
+                        || parser.checkEvent(Event.ID.DocumentEnd)
+                        || parser.checkEvent(Event.ID.StreamEnd)) {
+                    parser.getEvent();
+                    continue;
+                }
+                if (parser.checkEvent(Event.ID.DocumentStart)) {
+                    parser.getEvent();
+                    // the anchors are not shared between the documents
+                    composer = new Composer(parser, resolver);
+                    continue;
+                }
+                // the root node
+                active = 1;
+            } else if (indices[depth - 1] < 0) {
+                if (parser.checkEvent(Event.ID.MappingEnd)) {
+                    parser.getEvent();
+                    depth--;
+                    continue;
+                }
+                String key = null;
+                if (parser.checkEvent(Event.ID.Scalar)) {
+                    key = ((ScalarEvent) parser.getEvent()).getValue();
+                } else {
+                    // complex keys and aliases only match '*'
+                    skipNode();
+                }
+                active = query.advance(activeSteps[depth - 1], key, -1);
+            } else {
+                if (parser.checkEvent(Event.ID.SequenceEnd)) {
+                    parser.getEvent();
+                    depth--;
+                    continue;
+                }
+                active = query.advance(activeSteps[depth - 1], null, indices[depth - 1]++);
+            }
+            if ((active & matched) != 0) {
+                return composer.composeNode();
+            } else if (active == 0) {
+                skipNode();
+            } else if (parser.checkEvent(Event.ID.MappingStart)) {
+                parser.getEvent();
+                push(active, -1);
+            } else if (parser.checkEvent(Event.ID.SequenceStart)) {
+                parser.getEvent();
+                push(active, 0);
+            } else {
+                // scalars and aliases have no children
+                parser.getEvent();
+            }
+        }
+        return null;
+    }
+
+    private void push(long active, int index) {
+        if (depth == activeSteps.length) {
+            long[] steps = new long[depth * 2];
+            System.arraycopy(activeSteps, 0, steps, 0, depth);
+            activeSteps = steps;
+            int[] items = new int[depth * 2];
+            System.arraycopy(indices, 0, items, 0, depth);
+            indices = items;
+        }
+        activeSteps[depth] = active;
+        indices[depth] = index;
+        depth++;
+    }
+
+    /**
+     * Drop the events of the current node
+     */
+    private void skipNode() {
+        if (parser instanceof ParserImpl) {
+            ((ParserImpl) parser).skipNode();
+            return;
+        }
+        int level = 0;
+        do {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                level++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                level--;
+            }
+        } while (level > 0);
+    }
+}
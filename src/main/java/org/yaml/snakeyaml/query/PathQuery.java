@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.yaml.snakeyaml.composer.NodeStore;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+/**
+ * Compiled path expression which selects the parts of a YAML document. The
+ * expression is a sequence of steps applied to the root node of every
+ * document:
+ *
+ * <pre>
+ * $                the root (optional at the beginning)
+ * .key  or  key    the value of the mapping key (plain scalar key)
+ * ['key']          the value of the mapping key (may contain '.' or '[')
+ * [2]              the item of the sequence
+ * .*  or  [*]      any value of a mapping or item of a sequence
+ * ..key  ..*  ..[2]  the step applied at any depth (recursive descent)
+ * </pre>
+ *
+ * For instance <code>spec.template.spec.containers[*].image</code> or
+ * <code>$..image</code>. The query is immutable and can be shared.
+ *
+ * @see PathMatcher
+ */
+public final class PathQuery {
+    // the active steps are kept in a bit mask (the last bit means 'matched')
+    static final int MAX_STEPS = 63;
+
+    private final String path;
+    private final Step[] steps;
+
+    private PathQuery(String path, Step[] steps) {
+        this.path = path;
+        this.steps = steps;
+    }
+
+    /**
+     * Compile the path expression
+     *
+     * @param path
+     *            the expression
+     * @return the query
+     * @throws IllegalArgumentException
+     *             when the expression is not valid
+     */
+    public static PathQuery compile(String path) {
+        if (path == null) {
+            throw new NullPointerException("Path must be provided.");
+        }
+        List<Step> steps = new ArrayList<Step>();
+        int length = path.length();
+        int i = 0;
+        if (i < length && path.charAt(i) == '$') {
+            i++;
+        } else if (i < length && path.charAt(i) == '*') {
+            steps.add(new Step(Step.ANY, null, -1, false));
+            i++;
+        } else if (i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+            // the first key without the leading dot
+            int end = endOfName(path, i);
+            steps.add(new Step(Step.KEY, path.substring(i, end), -1, false));
+            i = end;
+        }
+        while (i < length) {
+            char ch = path.charAt(i);
+            boolean recursive = false;
+            if (ch == '.') {
+                i++;
+                if (i < length && path.charAt(i) == '.') {
+                    recursive = true;
+                    i++;
+                }
+                if (i < length && path.charAt(i) == '[') {
+                    if (!recursive) {
+                        throw invalid(path, i, "'[' is not expected after '.'");
+                    }
+                    i = parseBracket(path, i, true, steps);
+                } else if (i < length && path.charAt(i) == '*') {
+                    steps.add(new Step(Step.ANY, null, -1, recursive));
+                    i++;
+                } else {
+                    int end = endOfName(path, i);
+                    if (end == i) {
+                        throw invalid(path, i, "key is expected");
+                    }
+                    steps.add(new Step(Step.KEY, path.substring(i, end), -1, recursive));
+                    i = end;
+                }
+            } else if (ch == '[') {
+                i = parseBracket(path, i, false, steps);
+            } else {
+                throw invalid(path, i, "'.' or '[' is expected");
+            }
+        }
+        if (steps.size() > MAX_STEPS) {
+            throw new IllegalArgumentException("Path must not contain more than " + MAX_STEPS
+                    + " steps: " + path);
+        }
+        return new PathQuery(path, steps.toArray(new Step[steps.size()]));
+    }
+
+    private static int endOfName(String path, int start) {
+        int i = start;
+        while (i < path.length() && path.charAt(i) != '.' && path.charAt(i) != '[') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Parse [2], [*] or ['key']
+     *
+     * @return the position after ']'
+     */
+    private static int parseBracket(String path, int start, boolean recursive, List<Step> steps) {
+        int length = path.length();
+        int i = start + 1;
+        if (i < length && (path.charAt(i) == '\'' || path.charAt(i) == '"')) {
+            char quote = path.charAt(i);
+            int end = path.indexOf(quote, i + 1);
+            if (end < 0) {
+                throw invalid(path, i, "the quoted key is not closed");
+            }
+            steps.add(new Step(Step.KEY, path.substring(i + 1, end), -1, recursive));
+            i = end + 1;
+        } else if (i < length && path.charAt(i) == '*') {
+            steps.add(new Step(Step.ANY, null, -1, recursive));
+            i++;
+        } else {
+            int end = i;
+            while (end < length && path.charAt(end) >= '0' && path.charAt(end) <= '9') {
+                end++;
+            }
+            if (end == i || end - i > 9) {
+                throw invalid(path, i, "index, '*' or quoted key is expected");
+            }
+            steps.add(new Step(Step.INDEX, null, Integer.parseInt(path.substring(i, end)),
+                    recursive));
+            i = end;
+        }
+        if (i >= length || path.charAt(i) != ']') {
+            throw invalid(path, i, "']' is expected");
+        }
+        return i + 1;
+    }
+
+    private static IllegalArgumentException invalid(String path, int position, String problem) {
+        return new IllegalArgumentException("Invalid path '" + path + "' at position "
+                + position + ": " + problem);
+    }
+
+    /**
+     * Create the matcher which selects the nodes from the parser events
+     *
+     * @param parser
+     *            the source of the events (positioned at the beginning of
+     *            the stream)
+     * @param resolver
+     *            the resolver for the implicit tags of the composed nodes
+     * @return the matcher
+     */
+    public PathMatcher matcher(Parser parser, Resolver resolver) {
+        return new PathMatcher(this, parser, resolver);
+    }
+
+    /**
+     * Select the nodes of a composed document. The result is the same as for
+     * the matcher: the nodes in the document order, a node inside a matched
+     * node is not selected separately and the aliases are not followed.
+     *
+     * @param store
+     *            the document
+     * @return the selected entries of the store
+     */
+    public int[] select(NodeStore store) {
+        long matched = matchedBit();
+        int[] found = new int[8];
+        int count = 0;
+        // the open collections: the next child, the index of the next item
+        // (-1 for a mapping) and the active steps
+        int[] children = new int[16];
+        int[] indices = new int[16];
+        long[] activeSteps = new long[16];
+        int depth = 0;
+        int node = store.getRoot();
+        long active = 1;
+        while (node >= 0) {
+            if ((active & matched) != 0) {
+                if (count == found.length) {
+                    found = copyOf(found, count * 2);
+                }
+                found[count++] = node;
+            } else if (active != 0 && !store.isAlias(node) && store.getFirstChild(node) >= 0) {
+                if (depth == children.length) {
+                    children = copyOf(children, depth * 2);
+                    indices = copyOf(indices, depth * 2);
+                    long[] steps = new long[depth * 2];
+                    System.arraycopy(activeSteps, 0, steps, 0, depth);
+                    activeSteps = steps;
+                }
+                children[depth] = store.getFirstChild(node);
+                indices[depth] = store.getNodeId(node) == NodeId.mapping ? -1 : 0;
+                activeSteps[depth] = active;
+                depth++;
+            }
+            // the next node to check
+            node = -1;
+            while (depth > 0 && node < 0) {
+                int child = children[depth - 1];
+                if (child < 0) {
+                    depth--;
+                } else if (indices[depth - 1] < 0) {
+                    node = store.getNextSibling(child);
+                    children[depth - 1] = store.getNextSibling(node);
+                    String key = null;
+                    // complex keys and aliases only match '*'
+                    if (!store.isAlias(child) && store.getNodeId(child) == NodeId.scalar) {
+                        key = store.getValue(child);
+                    }
+                    active = advance(activeSteps[depth - 1], key, -1);
+                } else {
+                    node = child;
+                    children[depth - 1] = store.getNextSibling(child);
+                    active = advance(activeSteps[depth - 1], null, indices[depth - 1]++);
+                }
+            }
+        }
+        return copyOf(found, count);
+    }
+
+    private static int[] copyOf(int[] data, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(data, 0, copy, 0, Math.min(data.length, length));
+        return copy;
+    }
+
+    /**
+     * The steps which follow the active ones for the value of a mapping key
+     * or for a sequence item
+     *
+     * @param active
+     *            the active steps (bit n means that steps[n] is to be
+     *            applied, bit steps.length means that the node is matched)
+     * @param key
+     *            the mapping key (null when it is not a scalar or for a
+     *            sequence item)
+     * @param index
+     *            the index of the sequence item (-1 for a mapping value)
+     * @return the steps active for the child
+     */
+    long advance(long active, String key, int index) {
+        long result = 0;
+        for (int i = 0; i < steps.length; i++) {
+            if ((active & (1L << i)) != 0) {
+                Step step = steps[i];
+                if (step.matches(key, index)) {
+                    result |= 1L << (i + 1);
+                }
+                if (step.recursive) {
+                    result |= 1L << i;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the bit which marks the matched node
+     */
+    long matchedBit() {
+        return 1L << steps.length;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static final class Step {
+        static final int KEY = 0;
+        static final int INDEX = 1;
+        static final int ANY = 2;
+
+        final int kind;
+        final String key;
+        final int index;
+        final boolean recursive;
+
+        Step(int kind, String key, int index, boolean recursive) {
+            this.kind = kind;
+            this.key = key;
+            this.index = index;
+            this.recursive = recursive;
+        }
+
+        boolean matches(String name, int position) {
+            switch (kind) {
+            case KEY:
+                return position < 0 && key.equals(name);
+            case INDEX:
+                return position == index;
+            default:
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reader which decodes bytes from a ByteBuffer straight into the array
+ * provided by the caller (the window of the StreamReader). The BOM is used to
+ * identify the encoding the same way as in UnicodeReader. If BOM is not found
+ * then UTF-8 is used.
+ * <p>
+ * UTF-8 input which is mostly ASCII is decoded with a plain copy loop. Only
+ * the runs of non-ASCII bytes are passed to the CharsetDecoder.
+ * </p>
+ */
+public class ByteBufferReader extends Reader {
+    private static final int DECODING = 0;
+    private static final int LAST_CHUNK = 1;
+    private static final int FLUSHING = 2;
+    private static final int DONE = 3;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private ByteBuffer bytes;
+    private Charset encoding;
+    private CharsetDecoder decoder;
+    private boolean utf8;
+    private int state = DECODING;
+
+    /**
+     * @param bytes
+     *            the data between the position and the limit is read. The
+     *            position of the provided buffer is not changed.
+     */
+    public ByteBufferReader(ByteBuffer bytes) {
+        this.bytes = bytes.duplicate();
+    }
+
+    /**
+     * For the subclasses which provide the data with nextChunk()
+     */
+    protected ByteBufferReader() {
+        this.bytes = null;
+    }
+
+    /**
+     * Provide the next portion of the data when the current one is exhausted.
+     * 
+     * @param current
+     *            the current chunk (null when the first chunk is requested).
+     *            The bytes between its position and its limit (the incomplete
+     *            character) are not decoded yet and must be part of the next
+     *            chunk.
+     * @return the next chunk or null when there is no more data. A
+     *         non-blocking source may return the current chunk when the next
+     *         portion has not arrived yet, then read() returns the characters
+     *         decoded so far (possibly 0)
+     */
+    protected ByteBuffer nextChunk(ByteBuffer current) throws IOException {
+        return null;
+    }
+
+    /**
+     * Get stream encoding or NULL if stream is uninitialized. Call read()
+     * method to initialize it.
+     */
+    public String getEncoding() {
+        return encoding == null ? null : encoding.name();
+    }
+
+    void init() throws IOException {
+        if (decoder != null) {
+            return;
+        }
+        if (bytes == null) {
+            bytes = nextChunk(null);
+            if (bytes == null) {
+                bytes = ByteBuffer.allocate(0);
+            }
+        }
+        byte bom[] = new byte[UnicodeReader.BOM_SIZE];
+        int start = bytes.position();
+        for (int i = 0; i < bom.length && start + i < bytes.limit(); i++) {
+            bom[i] = bytes.get(start + i);
+        }
+        encoding = UnicodeReader.detectEncoding(bom);
+        bytes.position(start + UnicodeReader.bomLength(bom));
+        decoder = encoding.newDecoder().onUnmappableCharacter(CodingErrorAction.REPORT);
+        utf8 = UTF8.equals(encoding);
+    }
+
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        init();
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (out.hasRemaining() && state != DONE) {
+            CoderResult result;
+            if (state == FLUSHING) {
+                result = decoder.flush(out);
+                if (result.isOverflow()) {
+                    break;
+                }
+                state = DONE;
+            } else {
+                result = decode(bytes, out, state == LAST_CHUNK);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (result.isOverflow()) {
+                    break;
+                }
+                if (state == LAST_CHUNK) {
+                    state = FLUSHING;
+                } else if (out.position() > off && !ready()) {
+                    // return the decoded characters instead of waiting
+                    break;
+                } else {
+                    ByteBuffer next = nextChunk(bytes);
+                    if (next == null) {
+                        state = LAST_CHUNK;
+                    } else if (next == bytes) {
+                        // no data available yet
+                        break;
+                    } else {
+                        bytes = next;
+                    }
+                }
+            }
+        }
+        int count = out.position() - off;
+        if (count == 0 && state == DONE) {
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * @return true when the next chunk can be requested without blocking (the
+     *         subclasses which read a blocking source override it)
+     */
+    @Override
+    public boolean ready() throws IOException {
+        return true;
+    }
+
+    private CoderResult decode(ByteBuffer in, CharBuffer out, boolean endOfInput) {
+        if (!utf8) {
+            return decoder.decode(in, out, endOfInput);
+        }
+        while (true) {
+            copyAscii(in, out);
+            if (!in.hasRemaining()) {
+                // let the decoder know about the end of input
+                return endOfInput ? decoder.decode(in, out, true) : CoderResult.UNDERFLOW;
+            }
+            if (!out.hasRemaining()) {
+                return CoderResult.OVERFLOW;
+            }
+            // decode the run of non-ASCII bytes
+            int limit = in.limit();
+            int end = in.position();
+            while (end < limit && in.get(end) < 0) {
+                end++;
+            }
+            in.limit(end);
+            CoderResult result = decoder.decode(in, out, endOfInput && end == limit);
+            in.limit(limit);
+            if (result.isError() || result.isOverflow()) {
+                return result;
+            }
+            if (in.position() < end) {
+                if (end < limit) {
+                    // the character is interrupted by an ASCII byte
+                    return CoderResult.malformedForLength(end - in.position());
+                }
+                // the character continues in the next chunk
+                return CoderResult.UNDERFLOW;
+            }
+        }
+    }
+
+    /**
+     * Copy bytes as characters until the first non-ASCII byte
+     */
+    private static void copyAscii(ByteBuffer in, CharBuffer out) {
+        if (in.hasArray() && out.hasArray()) {
+            byte[] src = in.array();
+            int sp = in.arrayOffset() + in.position();
+            int sl = in.arrayOffset() + in.limit();
+            char[] dst = out.array();
+            int dp = out.arrayOffset() + out.position();
+            int dl = out.arrayOffset() + out.limit();
+            int start = sp;
+            while (sp < sl && dp < dl && src[sp] >= 0) {
+                dst[dp++] = (char) src[sp++];
+            }
+            in.position(in.position() + sp - start);
+            out.position(out.position() + sp - start);
+        } else {
+            int sp = in.position();
+            int sl = in.limit();
+            int dp = out.position();
+            int dl = out.limit();
+            byte b;
+            while (sp < sl && dp < dl && (b = in.get(sp)) >= 0) {
+                out.put(dp++, (char) b);
+                sp++;
+            }
+            in.position(sp);
+            out.position(dp);
+        }
+    }
+
+    public void close() throws IOException {
+        state = DONE;
+        bytes = null;
+    }
+}
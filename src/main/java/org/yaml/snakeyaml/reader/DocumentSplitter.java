@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+/**
+ * Split a stream into the parts which can be parsed independently. The stream
+ * is only pre-scanned for the lines which start with the document start
+ * marker ('---' at the beginning of a line followed by a space or a line
+ * break). Such a line cannot be a part of a scalar, so a part contains a
+ * single document (the first part may contain only comments or directives).
+ * The directives just before the marker belong to the following document.
+ * A line which starts with '%' is a directive only at the beginning of the
+ * stream or after the document end marker ('...'), separated from them only
+ * by other directives, comments or empty lines.
+ * <p>
+ * A malformed stream may be split differently from the parser but the
+ * result is malformed as well: the error is reported for the same document.
+ * </p>
+ */
+public final class DocumentSplitter {
+    private final String data;
+    private int[] starts;
+    private int[] lines;
+    private int count;
+
+    /**
+     * @param data
+     *            the complete stream
+     */
+    public DocumentSplitter(String data) {
+        this.data = data;
+        this.starts = new int[16];
+        this.lines = new int[16];
+        split();
+    }
+
+    private void split() {
+        add(0, 0);
+        int length = data.length();
+        int line = 0;
+        // the beginning of the directives before the document start
+        int directives = -1;
+        int directivesLine = 0;
+        // directives may only follow the beginning of the stream or the
+        // document end marker ('...')
+        boolean directivesAllowed = true;
+        int position = 0;
+        while (position < length) {
+            char ch = data.charAt(position);
+            if (ch == '-' && position > 0 && data.startsWith("---", position)
+                    && isSeparator(position + 3)) {
+                if (directives >= 0) {
+                    add(directives, directivesLine);
+                } else {
+                    add(position, line);
+                }
+                directives = -1;
+                directivesAllowed = false;
+            } else if (ch == '.' && data.startsWith("...", position) && isSeparator(position + 3)) {
+                directives = -1;
+                directivesAllowed = true;
+            } else if (ch == '%' && directivesAllowed) {
+                if (directives < 0) {
+                    directives = position;
+                    directivesLine = line;
+                }
+            } else if (!isBlankOrComment(position)) {
+                // the content of a document ('%' may start a line of a scalar)
+                directives = -1;
+                directivesAllowed = false;
+            }
+            // the next line
+            while (position < length && !isBreak(data.charAt(position))) {
+                position++;
+            }
+            if (position < length) {
+                if (data.charAt(position) == '\r' && position + 1 < length
+                        && data.charAt(position + 1) == '\n') {
+                    position++;
+                }
+                position++;
+                line++;
+            }
+        }
+    }
+
+    private void add(int start, int line) {
+        if (count > 0 && starts[count - 1] == start) {
+            return;
+        }
+        if (count == starts.length) {
+            int[] newStarts = new int[count * 2];
+            System.arraycopy(starts, 0, newStarts, 0, count);
+            starts = newStarts;
+            int[] newLines = new int[count * 2];
+            System.arraycopy(lines, 0, newLines, 0, count);
+            lines = newLines;
+        }
+        starts[count] = start;
+        lines[count] = line;
+        count++;
+    }
+
+    private boolean isSeparator(int position) {
+        if (position == data.length()) {
+            return true;
+        }
+        char ch = data.charAt(position);
+        return ch == ' ' || ch == '\t' || isBreak(ch);
+    }
+
+    private boolean isBlankOrComment(int position) {
+        int length = data.length();
+        while (position < length && (data.charAt(position) == ' '
+                || data.charAt(position) == '\t')) {
+            position++;
+        }
+        return position == length || data.charAt(position) == '#'
+                || isBreak(data.charAt(position));
+    }
+
+    private static boolean isBreak(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    /**
+     * @return the number of the parts
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the text of the part
+     */
+    public String getPart(int part) {
+        int end = part + 1 < count ? starts[part + 1] : data.length();
+        return data.substring(starts[part], end);
+    }
+
+    /**
+     * @return the position of the part in the stream
+     */
+    public int getIndex(int part) {
+        return starts[part];
+    }
+
+    /**
+     * @return the line of the beginning of the part in the stream
+     */
+    public int getLine(int part) {
+        return lines[part];
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Non-blocking Reader for the data which arrives in chunks (for instance from
+ * a socket). The bytes are pushed with feed() and endOfInput() is called when
+ * the stream is over. When the fed data is exhausted read() returns 0 instead
+ * of blocking, StreamReader reports it with NeedMoreInputException.
+ * <p>
+ * The encoding is detected (with BOM) as in ByteBufferReader when the first
+ * bytes arrive.
+ * </p>
+ */
+public class FeedReader extends ByteBufferReader {
+    // the bytes which are fed but not decoded yet
+    private byte[] buffer = new byte[0];
+    // the number of valid bytes in the buffer
+    private int length = 0;
+    private boolean ended = false;
+    // the number of all the bytes fed so far
+    private long fedBytes = 0;
+
+    /**
+     * Add the next chunk of the stream.
+     * 
+     * @param bytes
+     *            the data between the position and the limit is copied. The
+     *            position of the provided buffer is moved to its limit, so it
+     *            may be reused for the next portion.
+     */
+    public void feed(ByteBuffer bytes) {
+        if (ended) {
+            throw new IllegalStateException("The end of input is already reached.");
+        }
+        int size = bytes.remaining();
+        if (length + size > buffer.length) {
+            // the chunk which is being decoded keeps its offsets
+            byte[] data = new byte[Math.max(buffer.length * 2, length + size)];
+            System.arraycopy(buffer, 0, data, 0, length);
+            buffer = data;
+        }
+        bytes.get(buffer, length, size);
+        length += size;
+        fedBytes += size;
+    }
+
+    /**
+     * Report that the stream is over. The incomplete character at the end is
+     * reported as malformed input.
+     */
+    public void endOfInput() {
+        ended = true;
+    }
+
+    /**
+     * @return the number of the bytes fed since the beginning of the stream
+     */
+    public long getFedBytes() {
+        return fedBytes;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * @return true when enough bytes are fed to detect the encoding and
+     *         read() can be called
+     */
+    public boolean isReady() {
+        return ended || length >= UnicodeReader.BOM_SIZE;
+    }
+
+    @Override
+    protected ByteBuffer nextChunk(ByteBuffer current) {
+        if (current == null) {
+            return ByteBuffer.wrap(buffer, 0, length);
+        }
+        if (current.limit() == length) {
+            // nothing new is fed
+            return ended ? null : current;
+        }
+        // drop the decoded bytes. The current chunk is not used any more.
+        int start = current.position();
+        System.arraycopy(buffer, start, buffer, 0, length - start);
+        length -= start;
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reader for a memory mapped file. The file is mapped in chunks (a single
+ * mapping may not exceed 2GB) and decoded straight into the window of the
+ * StreamReader, so the operating system page cache is used instead of
+ * intermediate buffers. The file is closed as soon as the last chunk is mapped
+ * (the mapping stays valid) or when the Reader is closed.
+ */
+public class MappedFileReader extends ByteBufferReader {
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    private final FileInputStream input;
+    private final FileChannel channel;
+    private final long size;
+    private final long chunkSize;
+    // the position of the current chunk in the file
+    private long position = 0;
+
+    public MappedFileReader(File file) throws IOException {
+        this(file, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param file
+     *            the file to read
+     * @param chunkSize
+     *            the maximum size of a single mapping in bytes
+     */
+    public MappedFileReader(File file, int chunkSize) throws IOException {
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be at least " + MIN_CHUNK_SIZE
+                    + ": " + chunkSize);
+        }
+        this.input = new FileInputStream(file);
+        this.channel = input.getChannel();
+        this.size = channel.size();
+        this.chunkSize = chunkSize;
+    }
+
+    protected ByteBuffer nextChunk(ByteBuffer current) throws IOException {
+        if (current != null) {
+            if (position + current.limit() >= size) {
+                return null;
+            }
+            // the incomplete character is mapped again
+            position += current.position();
+        }
+        long length = Math.min(chunkSize, size - position);
+        ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        if (position + length >= size) {
+            input.close();
+        }
+        return chunk;
+    }
+
+    public void close() throws IOException {
+        super.close();
+        input.close();
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Thrown by StreamReader when a non-blocking Reader has no characters
+ * available yet (its read() returns 0). The input can be fed and the
+ * operation repeated.
+ */
+public class NeedMoreInputException extends YAMLException {
+    private static final long serialVersionUID = -3219581738913370371L;
+
+    public NeedMoreInputException() {
+        super("The input is not available yet.");
+    }
+
+    /**
+     * The exception is expected to happen a lot when the input arrives in
+     * small chunks, the stack trace is never used.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -18,54 +18,120 @@ package org.yaml.snakeyaml.reader;
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.Charset;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.yaml.snakeyaml.error.Mark;
 import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.scanner.Constant;
+import org.yaml.snakeyaml.util.SymbolTable;
 
 /**
  * Reader: checks if characters are in allowed range, adds '\0' to the end.
+ * <p>
+ * The characters are kept in a sliding window which is refilled in place. The
+ * window only grows when a single token (for instance a long scalar) does not
+ * fit into it.
+ * </p>
  */
 public class StreamReader {
     public final static Pattern NON_PRINTABLE = Pattern
             .compile("[^\t\n\r\u0020-\u007E\u0085\u00A0-\uD7FF\uE000-\uFFFD]");
+    /**
+     * Default amount of characters requested from the underlying Reader at
+     * once
+     */
+    public final static int DEFAULT_BUFFER_SIZE = 1024;
     private String name;
     private final Reader stream;
+    private final int bufferSize;
+    // the characters which are not consumed yet (plus the consumed part of the
+    // last chunk)
+    private char[] dataWindow;
+    // the number of valid characters in the dataWindow
+    private int dataLength;
+    // the current position in the dataWindow
     private int pointer = 0;
     private boolean eof = true;
-    private String buffer;
+    // a stable copy of the dataWindow to be shared by the Marks. It is created
+    // on demand and dropped when the window changes
+    private String snapshot;
+    private boolean errorSnippets = true;
     private int index = 0;
     private int line = 0;
     private int column = 0;
-    private char[] data;
+    // the position remembered by savePosition() (-1 when nothing is saved)
+    private int savedPointer = -1;
+    private int savedIndex;
+    private int savedLine;
+    private int savedColumn;
 
     public StreamReader(String stream) {
-        this.name = "'string'";
-        this.buffer = ""; // to set length to 0
-        checkPrintable(stream);
-        this.buffer = stream + "\0";
+        this(stream, "'string'", 0, 0);
+    }
+
+    /**
+     * Read a part of a bigger stream. The marks refer to the positions in the
+     * whole stream.
+     * 
+     * @param stream
+     *            the part which starts at the beginning of a line
+     * @param name
+     *            the name of the whole stream
+     * @param index
+     *            the position of the part in the whole stream
+     * @param line
+     *            the line of the beginning of the part
+     */
+    public StreamReader(String stream, String name, int index, int line) {
+        this.name = name;
+        this.index = index;
+        this.line = line;
+        int length = stream.length();
+        this.dataWindow = new char[length + 1];
+        stream.getChars(0, length, dataWindow, 0);
+        checkPrintable(dataWindow, 0, length);
+        this.dataWindow[length] = '\0';
+        this.dataLength = length + 1;
+        // the trailing '\0' is not required to build a snippet
+        this.snapshot = stream;
         this.stream = null;
+        this.bufferSize = 0;
         this.eof = true;
-        this.data = null;
     }
 
     public StreamReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param reader
+     *            the source of characters
+     * @param bufferSize
+     *            amount of characters requested from the reader at once
+     */
+    public StreamReader(Reader reader, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        }
         this.name = "'reader'";
-        this.buffer = "";
         this.stream = reader;
+        this.bufferSize = bufferSize;
+        this.dataWindow = new char[bufferSize + 1];
+        this.dataLength = 0;
         this.eof = false;
-        this.data = new char[1024];
-        this.update();
+        // the first character (nothing is lost when a non-blocking reader is
+        // not ready yet)
+        this.update(0);
     }
 
-    void checkPrintable(CharSequence data) {
-        Matcher em = NON_PRINTABLE.matcher(data);
-        if (em.find()) {
-            int position = this.index + this.buffer.length() - this.pointer + em.start();
-            throw new ReaderException(name, position, em.group().charAt(0),
-                    "special characters are not allowed");
+    void checkPrintable(final CharSequence data) {
+        final int length = data.length();
+        for (int i = 0; i < length; i++) {
+            final char c = data.charAt(i);
+            if (!isPrintable(c)) {
+                int position = this.index + this.dataLength - this.pointer + i;
+                throw new ReaderException(name, position, c, "special characters are not allowed");
+            }
         }
     }
 
@@ -89,11 +155,30 @@ public class StreamReader {
                 continue;
             }
 
-            int position = this.index + this.buffer.length() - this.pointer + i;
+            int position = this.index + this.dataLength - this.pointer + i - begin;
             throw new ReaderException(name, position, c, "special characters are not allowed");
         }
     }
 
+    /**
+     * Check whether all the characters are allowed in a YAML stream. It gives
+     * the same result as NON_PRINTABLE but it does not use the regular
+     * expression machinery.
+     * 
+     * @param data
+     *            the characters to check
+     * @return true if no special characters are found
+     */
+    public static boolean isPrintable(final String data) {
+        final int length = data.length();
+        for (int i = 0; i < length; i++) {
+            if (!isPrintable(data.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean isPrintable(final char c) {
         return (c >= '\u0020' && c <= '\u007E') || c == '\n' || c == '\r' || c == '\t'
                 || c == '\u0085' || (c >= '\u00A0' && c <= '\uD7FF')
@@ -101,7 +186,57 @@ public class StreamReader {
     }
 
     public Mark getMark() {
-        return new Mark(name, this.index, this.line, this.column, this.buffer, this.pointer);
+        if (!this.errorSnippets) {
+            return new Mark(name, this.index, this.line, this.column, null, this.pointer);
+        }
+        if (this.snapshot == null) {
+            this.snapshot = new String(this.dataWindow, 0, this.dataLength);
+        }
+        return new Mark(name, this.index, this.line, this.column, this.snapshot, this.pointer);
+    }
+
+    /**
+     * @param errorSnippets
+     *            false to create Marks which keep only the position. The
+     *            window is neither copied nor retained by the Marks then.
+     */
+    public void setErrorSnippets(boolean errorSnippets) {
+        this.errorSnippets = errorSnippets;
+    }
+
+    /**
+     * Remember the current position. The characters from this position are
+     * kept in the window until the next call, so that the reader can go back
+     * with restorePosition(). It is used to retry a token when a non-blocking
+     * reader has run out of data.
+     */
+    public void savePosition() {
+        this.savedPointer = this.pointer;
+        this.savedIndex = this.index;
+        this.savedLine = this.line;
+        this.savedColumn = this.column;
+    }
+
+    /**
+     * Go back to the position remembered by savePosition()
+     */
+    public void restorePosition() {
+        if (this.savedPointer < 0) {
+            throw new YAMLException("The position is not saved.");
+        }
+        this.pointer = this.savedPointer;
+        this.index = this.savedIndex;
+        this.line = this.savedLine;
+        this.column = this.savedColumn;
+    }
+
+    /**
+     * @return the number of the characters in the window from the position
+     *         remembered by savePosition() (0 when nothing is saved). It is
+     *         the amount of work to repeat after restorePosition().
+     */
+    public int getSavedLength() {
+        return this.savedPointer < 0 ? 0 : this.dataLength - this.savedPointer;
     }
 
     public void forward() {
@@ -114,15 +249,13 @@ public class StreamReader {
      * @param length
      */
     public void forward(int length) {
-        if (this.pointer + length + 1 >= this.buffer.length()) {
-            update();
-        }
+        ensureEnoughData(length + 1);
         char ch = 0;
         for (int i = 0; i < length; i++) {
-            ch = this.buffer.charAt(this.pointer);
+            ch = this.dataWindow[this.pointer];
             this.pointer++;
             this.index++;
-            if (Constant.LINEBR.has(ch) || (ch == '\r' && buffer.charAt(pointer) != '\n')) {
+            if (Constant.LINEBR.has(ch) || (ch == '\r' && dataWindow[pointer] != '\n')) {
                 this.line++;
                 this.column = 0;
             } else if (ch != '\uFEFF') {
@@ -132,7 +265,7 @@ public class StreamReader {
     }
 
     public char peek() {
-        return this.buffer.charAt(this.pointer);
+        return this.dataWindow[this.pointer];
     }
 
     /**
@@ -142,10 +275,36 @@ public class StreamReader {
      * @return the next index-th character
      */
     public char peek(int index) {
-        if (this.pointer + index + 1 > this.buffer.length()) {
-            update();
+        if (ensureEnoughData(index)) {
+            return this.dataWindow[this.pointer + index];
         }
-        return this.buffer.charAt(this.pointer + index);
+        // beyond the end of the stream
+        return '\0';
+    }
+
+    /**
+     * Find the first character from the given set. The window is scanned
+     * directly instead of calling peek() for every character.
+     * 
+     * @param stop
+     *            the characters to look for. It must contain '\0' which marks
+     *            the end of the stream.
+     * @param offset
+     *            the position (relative to the current one) to start from
+     * @return the position of the found character relative to the current one
+     */
+    public int find(Constant stop, int offset) {
+        int length = offset;
+        while (ensureEnoughData(length)) {
+            int end = this.dataLength;
+            for (int i = this.pointer + length; i < end; i++) {
+                if (stop.has(this.dataWindow[i])) {
+                    return i - this.pointer;
+                }
+            }
+            length = end - this.pointer;
+        }
+        return length;
     }
 
     /**
@@ -155,58 +314,122 @@ public class StreamReader {
      * @return the next length characters
      */
     public String prefix(int length) {
-        if (this.pointer + length >= this.buffer.length()) {
-            update();
-        }
-        if (this.pointer + length > this.buffer.length()) {
-            return this.buffer.substring(this.pointer);
-        }
-        return this.buffer.substring(this.pointer, this.pointer + length);
+        // only the returned characters are required
+        ensureEnoughData(length - 1);
+        return new String(this.dataWindow, this.pointer,
+                Math.min(length, this.dataLength - this.pointer));
     }
 
     /**
      * prefix(length) immediately followed by forward(length)
      */
     public String prefixForward(int length) {
+        // the character after the prefix becomes the current one
+        ensureEnoughData(length);
         final String prefix = prefix(length);
+        forwardInLine(length);
+        return prefix;
+    }
+
+    /**
+     * prefixForward(length) which takes the String from the symbol table
+     * (the characters are hashed in the window, no String is created when
+     * the symbol is already known)
+     */
+    public String prefixForward(int length, SymbolTable symbols) {
+        ensureEnoughData(length);
+        final String prefix = symbols.get(this.dataWindow, this.pointer,
+                Math.min(length, this.dataLength - this.pointer));
+        forwardInLine(length);
+        return prefix;
+    }
+
+    private void forwardInLine(int length) {
         this.pointer += length;
         this.index += length;
         // prefix never contains new line characters
         this.column += length;
-        return prefix;
     }
 
-    private void update() {
-        if (!this.eof) {
-            this.buffer = buffer.substring(this.pointer);
-            this.pointer = 0;
-            try {
-                int converted = this.stream.read(data);
+    /**
+     * Make sure that the character at pointer + size is in the window (when
+     * the stream is not exhausted yet)
+     * 
+     * @return true when the character is available
+     */
+    private boolean ensureEnoughData(int size) {
+        if (!this.eof && this.pointer + size >= this.dataLength) {
+            update(size);
+        }
+        return this.pointer + size < this.dataLength;
+    }
+
+    private void update(int size) {
+        try {
+            while (!this.eof && this.pointer + size >= this.dataLength) {
+                compact(size);
+                int converted = this.stream.read(dataWindow, dataLength, dataWindow.length
+                        - dataLength);
                 if (converted > 0) {
-                    /*
-                     * Let's create StringBuilder manually. Anyway str1 + str2
-                     * generates new StringBuilder(str1).append(str2).toSting()
-                     * Giving correct capacity to the constructor prevents
-                     * unnecessary operations in appends.
-                     */
-                    checkPrintable(data, 0, converted);
-                    this.buffer = new StringBuilder(buffer.length() + converted).append(buffer)
-                            .append(data, 0, converted).toString();
+                    checkPrintable(dataWindow, dataLength, dataLength + converted);
+                    this.dataLength += converted;
+                } else if (converted == 0) {
+                    // non-blocking reader does not have the data yet
+                    throw new NeedMoreInputException();
                 } else {
                     this.eof = true;
-                    this.buffer += "\0";
+                    if (this.dataLength == this.dataWindow.length) {
+                        resize(this.dataLength + 1);
+                    }
+                    this.dataWindow[this.dataLength++] = '\0';
                 }
-            } catch (IOException ioe) {
-                throw new YAMLException(ioe);
             }
+        } catch (IOException ioe) {
+            throw new YAMLException(ioe);
         }
     }
 
+    /**
+     * Drop the consumed characters and make room for at least half of the
+     * window. Growing the window when the unconsumed part becomes large keeps
+     * the amount of copying linear even for very long tokens. The characters
+     * from the saved position are not dropped.
+     */
+    private void compact(int size) {
+        this.snapshot = null;
+        int start = this.savedPointer >= 0 ? this.savedPointer : this.pointer;
+        int remaining = this.dataLength - start;
+        int required = Math.max(remaining, this.pointer - start + size + 1);
+        if (required + this.bufferSize > this.dataWindow.length
+                || remaining > this.dataWindow.length / 2) {
+            int capacity = Math.max(this.dataWindow.length * 2, required + this.bufferSize);
+            char[] window = new char[capacity];
+            System.arraycopy(this.dataWindow, start, window, 0, remaining);
+            this.dataWindow = window;
+        } else if (start > 0) {
+            System.arraycopy(this.dataWindow, start, this.dataWindow, 0, remaining);
+        }
+        this.pointer -= start;
+        if (this.savedPointer >= 0) {
+            this.savedPointer = 0;
+        }
+        this.dataLength = remaining;
+    }
+
+    private void resize(int capacity) {
+        char[] window = new char[capacity];
+        System.arraycopy(this.dataWindow, 0, window, 0, this.dataLength);
+        this.dataWindow = window;
+    }
+
     public int getColumn() {
         return column;
     }
 
     public Charset getEncoding() {
+        if (this.stream instanceof ByteBufferReader) {
+            return Charset.forName(((ByteBufferReader) this.stream).getEncoding());
+        }
         return Charset.forName(((UnicodeReader) this.stream).getEncoding());
     }
 
@@ -39,33 +39,35 @@ package org.yaml.snakeyaml.reader;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.PushbackInputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CodingErrorAction;
 
 /**
  * Generic unicode textreader, which will use BOM mark to identify the encoding
  * to be used. If BOM is not found then use a given default or system encoding.
+ * <p>
+ * The bytes are decoded as in ByteBufferReader, so the ASCII runs of UTF-8
+ * input are copied without CharsetDecoder.
+ * </p>
  */
 public class UnicodeReader extends Reader {
     private static final Charset UTF8 = Charset.forName("UTF-8");
     private static final Charset UTF16BE = Charset.forName("UTF-16BE");
     private static final Charset UTF16LE = Charset.forName("UTF-16LE");
+    private static final int BUFFER_SIZE = 8192;
 
-    PushbackInputStream internalIn;
-    InputStreamReader internalIn2 = null;
+    InputStream internalIn;
+    ByteBufferReader internalIn2 = null;
 
-    private static final int BOM_SIZE = 3;
+    static final int BOM_SIZE = 3;
 
     /**
      * @param in
      *            InputStream to be read
      */
     public UnicodeReader(InputStream in) {
-        internalIn = new PushbackInputStream(in, BOM_SIZE);
+        internalIn = in;
     }
 
     /**
@@ -77,40 +79,49 @@ public class UnicodeReader extends Reader {
     }
 
     /**
-     * Read-ahead four bytes and check for BOM marks. Extra bytes are unread
-     * back to the stream, only BOM bytes are skipped.
+     * Read the first bytes and check for BOM marks. Only BOM bytes are
+     * skipped.
      */
     protected void init() throws IOException {
         if (internalIn2 != null)
             return;
 
-        Charset encoding;
-        byte bom[] = new byte[BOM_SIZE];
-        int n, unread;
-        n = internalIn.read(bom, 0, bom.length);
+        ByteBufferReader reader = new StreamChunkReader(internalIn);
+        reader.init();
+        internalIn2 = reader;
+    }
 
-        if ((bom[0] == (byte) 0xEF) && (bom[1] == (byte) 0xBB) && (bom[2] == (byte) 0xBF)) {
-            encoding = UTF8;
-            unread = n - 3;
-        } else if ((bom[0] == (byte) 0xFE) && (bom[1] == (byte) 0xFF)) {
-            encoding = UTF16BE;
-            unread = n - 2;
+    /**
+     * Detect the encoding by the BOM. UTF-8 is used when BOM is not found.
+     * 
+     * @param bom
+     *            the first BOM_SIZE bytes of the stream (the missing bytes
+     *            must be 0)
+     */
+    static Charset detectEncoding(byte[] bom) {
+        if ((bom[0] == (byte) 0xFE) && (bom[1] == (byte) 0xFF)) {
+            return UTF16BE;
         } else if ((bom[0] == (byte) 0xFF) && (bom[1] == (byte) 0xFE)) {
-            encoding = UTF16LE;
-            unread = n - 2;
-        } else {
-            // Unicode BOM mark not found, unread all bytes
-            encoding = UTF8;
-            unread = n;
+            return UTF16LE;
         }
+        // UTF-8 BOM or Unicode BOM mark not found
+        return UTF8;
+    }
 
-        if (unread > 0)
-            internalIn.unread(bom, (n - unread), unread);
-
-        // Use given encoding
-        CharsetDecoder decoder = encoding.newDecoder().onUnmappableCharacter(
-                CodingErrorAction.REPORT);
-        internalIn2 = new InputStreamReader(internalIn, decoder);
+    /**
+     * @param bom
+     *            the first BOM_SIZE bytes of the stream (the missing bytes
+     *            must be 0)
+     * @return the amount of bytes to skip (0 when BOM is not found)
+     */
+    static int bomLength(byte[] bom) {
+        if ((bom[0] == (byte) 0xEF) && (bom[1] == (byte) 0xBB) && (bom[2] == (byte) 0xBF)) {
+            return 3;
+        } else if (((bom[0] == (byte) 0xFE) && (bom[1] == (byte) 0xFF))
+                || ((bom[0] == (byte) 0xFF) && (bom[1] == (byte) 0xFE))) {
+            return 2;
+        }
+        return 0;
     }
 
     public void close() throws IOException {
@@ -122,4 +133,56 @@ public class UnicodeReader extends Reader {
         init();
         return internalIn2.read(cbuf, off, len);
     }
+
+    /**
+     * Provide the InputStream to ByteBufferReader in chunks of a reused
+     * buffer.
+     */
+    private static final class StreamChunkReader extends ByteBufferReader {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        StreamChunkReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        protected ByteBuffer nextChunk(ByteBuffer current) throws IOException {
+            int length = 0;
+            if (current != null) {
+                // keep the incomplete character
+                length = current.remaining();
+                System.arraycopy(buffer, current.position(), buffer, 0, length);
+                current.position(0);
+                current.limit(length);
+            }
+            // the first chunk must contain the BOM
+            int required = current == null ? BOM_SIZE : length + 1;
+            while (length < required) {
+                int count = in.read(buffer, length, buffer.length - length);
+                if (count < 0) {
+                    if (current == null && length > 0) {
+                        break;
+                    }
+                    return null;
+                }
+                length += count;
+            }
+            return ByteBuffer.wrap(buffer, 0, length);
+        }
+
+        /**
+         * Do not block while the decoded characters can be returned
+         */
+        @Override
+        public boolean ready() throws IOException {
+            return in.available() > 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            in.close();
+        }
+    }
 }
\ No newline at end of file
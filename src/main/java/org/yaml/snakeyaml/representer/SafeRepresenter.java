@@ -35,6 +35,7 @@ import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.scanner.Constant;
 
 /**
  * Represent standard Java classes
@@ -110,7 +111,7 @@ class SafeRepresenter extends BaseRepresenter {
             Tag tag = Tag.STR;
             Character style = null;
             String value = data.toString();
-            if (StreamReader.NON_PRINTABLE.matcher(value).find()) {
+            if (!StreamReader.isPrintable(value)) {
                 tag = Tag.BINARY;
                 char[] binary;
                 try {
@@ -123,13 +124,25 @@ class SafeRepresenter extends BaseRepresenter {
             }
             // if no other scalar style is explicitly set, use literal style for
             // multiline scalars
-            if (defaultScalarStyle == null && MULTILINE_PATTERN.matcher(value).find()) {
+            if (defaultScalarStyle == null && isMultiline(value)) {
                 style = '|';
             }
             return representScalar(tag, value, style);
         }
     }
 
+    /**
+     * The same check as MULTILINE_PATTERN without regular expressions
+     */
+    private static boolean isMultiline(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Constant.LINEBR.has(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected class RepresentBoolean implements Represent {
         public Node representData(Object data) {
             String value;
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.regex.Pattern;
+
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Resolver for the YAML 1.2 core schema. Only true/false are booleans and
+ * the YAML 1.1 forms (yes/no/on/off, sexagesimal numbers, 0b binary and 0
+ * octal integers, '_' separators and timestamps) remain strings. Octal
+ * integers use the 0o prefix.
+ * <p>
+ * A number with a redundant leading zero (012, 00.5) remains a string as in
+ * the JSON schema because SafeConstructor reads a leading zero as the YAML
+ * 1.1 octal prefix. The merge key '&lt;&lt;' is kept to support the merge of
+ * the mappings.
+ * </p>
+ */
+public class CoreSchemaResolver extends Resolver {
+    public static final Pattern CORE_BOOL = Pattern
+            .compile("^(?:true|True|TRUE|false|False|FALSE)$");
+    public static final Pattern CORE_FLOAT = Pattern
+            .compile("^(?:[-+]?(?:\\.[0-9]+|(?:0|[1-9][0-9]*)(?:\\.[0-9]*)?)(?:[eE][-+]?[0-9]+)?|[-+]?\\.(?:inf|Inf|INF)|\\.(?:nan|NaN|NAN))$");
+    public static final Pattern CORE_INT = Pattern
+            .compile("^(?:[-+]?(?:0|[1-9][0-9]*)|0o[0-7]+|0x[0-9a-fA-F]+)$");
+    public static final Pattern CORE_NULL = Pattern.compile("^(?:~|null|Null|NULL)$");
+
+    @Override
+    protected void addImplicitResolvers() {
+        addImplicitResolver(Tag.BOOL, CORE_BOOL, "tTfF");
+        // INT must be before FLOAT because FLOAT matches INT
+        addImplicitResolver(Tag.INT, CORE_INT, "-+0123456789");
+        addImplicitResolver(Tag.FLOAT, CORE_FLOAT, "-+0123456789.");
+        addImplicitResolver(Tag.MERGE, MERGE, "<");
+        addImplicitResolver(Tag.NULL, CORE_NULL, "~nN\0");
+        addImplicitResolver(Tag.NULL, EMPTY, null);
+    }
+}
@@ -0,0 +1,509 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.regex.Pattern;
+
+/**
+ * Hand-written recognizers for the standard regular expressions of the
+ * Resolver. Every recognizer accepts exactly the same values as the
+ * corresponding Pattern but it checks the characters in a single pass
+ * without the regular expression machinery.
+ */
+final class ImplicitTypeMatcher {
+    // the value is checked with the regular expression
+    static final int CUSTOM = 0;
+    static final int BOOL = 1;
+    static final int FLOAT = 2;
+    static final int INT = 3;
+    static final int MERGE = 4;
+    static final int NULL = 5;
+    static final int EMPTY = 6;
+    static final int TIMESTAMP = 7;
+    static final int VALUE = 8;
+    static final int YAML = 9;
+    static final int CORE_BOOL = 10;
+    static final int CORE_FLOAT = 11;
+    static final int CORE_INT = 12;
+    static final int CORE_NULL = 13;
+    static final int JSON_BOOL = 14;
+    static final int JSON_FLOAT = 15;
+    static final int JSON_INT = 16;
+    static final int JSON_NULL = 17;
+
+    private ImplicitTypeMatcher() {
+    }
+
+    /**
+     * @return the recognizer for the standard Pattern of the Resolver (or of
+     *         the YAML 1.2 schema resolvers) or CUSTOM for any other Pattern
+     */
+    static int kindOf(Pattern regexp) {
+        if (regexp == Resolver.BOOL) {
+            return BOOL;
+        } else if (regexp == Resolver.FLOAT) {
+            return FLOAT;
+        } else if (regexp == Resolver.INT) {
+            return INT;
+        } else if (regexp == Resolver.MERGE) {
+            return MERGE;
+        } else if (regexp == Resolver.NULL) {
+            return NULL;
+        } else if (regexp == Resolver.EMPTY) {
+            return EMPTY;
+        } else if (regexp == Resolver.TIMESTAMP) {
+            return TIMESTAMP;
+        } else if (regexp == Resolver.VALUE) {
+            return VALUE;
+        } else if (regexp == Resolver.YAML) {
+            return YAML;
+        } else if (regexp == CoreSchemaResolver.CORE_BOOL) {
+            return CORE_BOOL;
+        } else if (regexp == CoreSchemaResolver.CORE_FLOAT) {
+            return CORE_FLOAT;
+        } else if (regexp == CoreSchemaResolver.CORE_INT) {
+            return CORE_INT;
+        } else if (regexp == CoreSchemaResolver.CORE_NULL) {
+            return CORE_NULL;
+        } else if (regexp == JsonSchemaResolver.JSON_BOOL) {
+            return JSON_BOOL;
+        } else if (regexp == JsonSchemaResolver.JSON_FLOAT) {
+            return JSON_FLOAT;
+        } else if (regexp == JsonSchemaResolver.JSON_INT) {
+            return JSON_INT;
+        } else if (regexp == JsonSchemaResolver.JSON_NULL) {
+            return JSON_NULL;
+        }
+        return CUSTOM;
+    }
+
+    static boolean matches(int kind, String value) {
+        switch (kind) {
+        case BOOL:
+            return isBool(value);
+        case FLOAT:
+            return isFloat(value);
+        case INT:
+            return isInt(value);
+        case MERGE:
+            return "<<".equals(value);
+        case NULL:
+            return isNull(value);
+        case EMPTY:
+            return value.length() == 0;
+        case TIMESTAMP:
+            return isTimestamp(value);
+        case VALUE:
+            return "=".equals(value);
+        case YAML:
+            return "!".equals(value) || "&".equals(value) || "*".equals(value);
+        case CORE_BOOL:
+            return oneOf(value, "true", "True", "TRUE") || oneOf(value, "false", "False", "FALSE");
+        case CORE_FLOAT:
+            return isCoreFloat(value);
+        case CORE_INT:
+            return isCoreInt(value);
+        case CORE_NULL:
+            return "~".equals(value) || oneOf(value, "null", "Null", "NULL");
+        case JSON_BOOL:
+            return "true".equals(value) || "false".equals(value);
+        case JSON_FLOAT:
+            return isJsonNumber(value, true);
+        case JSON_INT:
+            return isJsonNumber(value, false);
+        case JSON_NULL:
+            return "null".equals(value);
+        default:
+            throw new IllegalArgumentException("Unknown kind: " + kind);
+        }
+    }
+
+    static boolean isBool(String value) {
+        switch (value.length()) {
+        case 2:
+            return oneOf(value, "no", "No", "NO") || oneOf(value, "on", "On", "ON");
+        case 3:
+            return oneOf(value, "yes", "Yes", "YES") || oneOf(value, "off", "Off", "OFF");
+        case 4:
+            return oneOf(value, "true", "True", "TRUE");
+        case 5:
+            return oneOf(value, "false", "False", "FALSE");
+        default:
+            return false;
+        }
+    }
+
+    static boolean isNull(String value) {
+        switch (value.length()) {
+        case 1:
+            return value.charAt(0) == '~' || value.charAt(0) == ' ';
+        case 4:
+            return oneOf(value, "null", "Null", "NULL");
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * <pre>
+     * [-+]? ( 0b[0-1_]+ | 0[0-7_]+ | 0 | [1-9][0-9_]* | 0x[0-9a-fA-F_]+
+     *       | [1-9][0-9_]*(:[0-5]?[0-9])+ )
+     * </pre>
+     */
+    static boolean isInt(String value) {
+        int length = value.length();
+        int i = skipSign(value, 0);
+        if (i == length) {
+            return false;
+        }
+        char ch = value.charAt(i);
+        if (ch == '0') {
+            i++;
+            if (i == length) {
+                return true;
+            }
+            ch = value.charAt(i);
+            if (ch == 'b') {
+                i++;
+                while (i < length && (value.charAt(i) == '0' || value.charAt(i) == '1'
+                        || value.charAt(i) == '_')) {
+                    i++;
+                }
+                return i == length && value.charAt(i - 1) != 'b';
+            } else if (ch == 'x') {
+                i++;
+                while (i < length && (isHexDigit(value.charAt(i)) || value.charAt(i) == '_')) {
+                    i++;
+                }
+                return i == length && value.charAt(i - 1) != 'x';
+            }
+            while (i < length && ((value.charAt(i) >= '0' && value.charAt(i) <= '7')
+                    || value.charAt(i) == '_')) {
+                i++;
+            }
+            return i == length;
+        } else if (ch >= '1' && ch <= '9') {
+            i = skipDigits(value, i + 1, true);
+            if (i == length) {
+                return true;
+            }
+            // sexagesimal
+            i = skipSexagesimal(value, i);
+            return i == length;
+        }
+        return false;
+    }
+
+    /**
+     * <pre>
+     *   [-+]? ( \.[0-9]+ | [0-9_]+(\.[0-9_]*)? ) ([eE][-+]?[0-9]+)?
+     * | [-+]? [0-9][0-9_]*(:[0-5]?[0-9])+\.[0-9_]*
+     * | [-+]? \.(inf|Inf|INF)
+     * | \.(nan|NaN|NAN)
+     * </pre>
+     */
+    static boolean isFloat(String value) {
+        int length = value.length();
+        if (length == 4 && oneOf(value, ".nan", ".NaN", ".NAN")) {
+            return true;
+        }
+        int i = skipSign(value, 0);
+        if (i == length) {
+            return false;
+        }
+        char ch = value.charAt(i);
+        if (ch == '.') {
+            if (length - i == 4
+                    && (value.startsWith(".inf", i) || value.startsWith(".Inf", i) || value
+                            .startsWith(".INF", i))) {
+                return true;
+            }
+            int start = i + 1;
+            i = skipDigits(value, start, false);
+            return i > start && isExponent(value, i);
+        }
+        if (!isDigit(ch) && ch != '_') {
+            return false;
+        }
+        int start = i;
+        i = skipDigits(value, i, true);
+        if (i == length) {
+            return true;
+        }
+        ch = value.charAt(i);
+        if (ch == '.') {
+            return isExponent(value, skipDigits(value, i + 1, true));
+        } else if (ch == ':' && isDigit(value.charAt(start))) {
+            // sexagesimal
+            i = skipSexagesimal(value, i);
+            if (i < 0 || i == length || value.charAt(i) != '.') {
+                return false;
+            }
+            return skipDigits(value, i + 1, true) == length;
+        }
+        return isExponent(value, i);
+    }
+
+    /**
+     * <pre>
+     *   [0-9]{4}-[0-9]{2}-[0-9]{2}
+     * | [0-9]{4}-[0-9]{1,2}-[0-9]{1,2}([Tt]|[ \t]+)[0-9]{1,2}:[0-9]{2}:[0-9]{2}
+     *   (\.[0-9]*)?([ \t]*(Z|[-+][0-9]{1,2}(:[0-9]{2})?))?
+     * </pre>
+     */
+    static boolean isTimestamp(String value) {
+        int length = value.length();
+        if (length < 10 || !isDigits(value, 0, 4) || value.charAt(4) != '-') {
+            return false;
+        }
+        if (length == 10 && isDigits(value, 5, 2) && value.charAt(7) == '-'
+                && isDigits(value, 8, 2)) {
+            return true;
+        }
+        int i = skipOneOrTwoDigits(value, 5);
+        if (i < 0 || i == length || value.charAt(i) != '-') {
+            return false;
+        }
+        i = skipOneOrTwoDigits(value, i + 1);
+        if (i < 0 || i == length) {
+            return false;
+        }
+        char ch = value.charAt(i);
+        if (ch == 'T' || ch == 't') {
+            i++;
+        } else if (ch == ' ' || ch == '\t') {
+            i = skipBlanks(value, i);
+        } else {
+            return false;
+        }
+        i = skipOneOrTwoDigits(value, i);
+        if (i < 0 || i + 6 > length || value.charAt(i) != ':' || !isDigits(value, i + 1, 2)
+                || value.charAt(i + 3) != ':' || !isDigits(value, i + 4, 2)) {
+            return false;
+        }
+        i += 6;
+        if (i < length && value.charAt(i) == '.') {
+            i = skipDigits(value, i + 1, false);
+        }
+        if (i == length) {
+            return true;
+        }
+        // the time zone
+        i = skipBlanks(value, i);
+        if (i == length) {
+            return false;
+        }
+        ch = value.charAt(i);
+        if (ch == 'Z') {
+            return i + 1 == length;
+        } else if (ch == '-' || ch == '+') {
+            i = skipOneOrTwoDigits(value, i + 1);
+            if (i < 0) {
+                return false;
+            }
+            return i == length
+                    || (i + 3 == length && value.charAt(i) == ':' && isDigits(value, i + 1, 2));
+        }
+        return false;
+    }
+
+    /**
+     * <pre>
+     * [-+]?(0|[1-9][0-9]*) | 0o[0-7]+ | 0x[0-9a-fA-F]+
+     * </pre>
+     */
+    static boolean isCoreInt(String value) {
+        int length = value.length();
+        if (length > 2 && value.charAt(0) == '0') {
+            char ch = value.charAt(1);
+            if (ch == 'o' || ch == 'x') {
+                for (int i = 2; i < length; i++) {
+                    char digit = value.charAt(i);
+                    if (ch == 'o' ? digit < '0' || digit > '7' : !isHexDigit(digit)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return skipDecimal(value, skipSign(value, 0)) == length;
+    }
+
+    /**
+     * <pre>
+     *   [-+]? ( \.[0-9]+ | (0|[1-9][0-9]*)(\.[0-9]*)? ) ([eE][-+]?[0-9]+)?
+     * | [-+]? \.(inf|Inf|INF)
+     * | \.(nan|NaN|NAN)
+     * </pre>
+     */
+    static boolean isCoreFloat(String value) {
+        int length = value.length();
+        if (length == 4 && oneOf(value, ".nan", ".NaN", ".NAN")) {
+            return true;
+        }
+        int i = skipSign(value, 0);
+        if (i == length) {
+            return false;
+        }
+        if (value.charAt(i) == '.') {
+            if (length - i == 4
+                    && (value.startsWith(".inf", i) || value.startsWith(".Inf", i) || value
+                            .startsWith(".INF", i))) {
+                return true;
+            }
+            int start = i + 1;
+            i = skipDigits(value, start, false);
+            return i > start && isExponent(value, i);
+        }
+        return isFraction(value, skipDecimal(value, i));
+    }
+
+    /**
+     * <pre>
+     * -?(0|[1-9][0-9]*) (\.[0-9]*)?([eE][-+]?[0-9]+)?
+     * </pre>
+     *
+     * The fraction and the exponent are only allowed for a float.
+     */
+    static boolean isJsonNumber(String value, boolean fraction) {
+        int i = value.startsWith("-") ? 1 : 0;
+        i = skipDecimal(value, i);
+        return fraction ? isFraction(value, i) : i == value.length();
+    }
+
+    /**
+     * @return the position after (0|[1-9][0-9]*) or -1 if it is not found
+     */
+    private static int skipDecimal(String value, int i) {
+        if (i >= value.length() || !isDigit(value.charAt(i))) {
+            return -1;
+        } else if (value.charAt(i) == '0') {
+            return i + 1;
+        }
+        return skipDigits(value, i + 1, false);
+    }
+
+    /**
+     * @return true when the rest of the value is (\.[0-9]*)?([eE][-+]?[0-9]+)?
+     */
+    private static boolean isFraction(String value, int i) {
+        if (i < 0) {
+            return false;
+        }
+        if (i < value.length() && value.charAt(i) == '.') {
+            i = skipDigits(value, i + 1, false);
+        }
+        return isExponent(value, i);
+    }
+
+    private static boolean oneOf(String value, String lower, String capitalized, String upper) {
+        return value.equals(lower) || value.equals(capitalized) || value.equals(upper);
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isHexDigit(char ch) {
+        return isDigit(ch) || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+    }
+
+    private static boolean isDigits(String value, int start, int count) {
+        if (start + count > value.length()) {
+            return false;
+        }
+        for (int i = start; i < start + count; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipSign(String value, int i) {
+        if (i < value.length() && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            return i + 1;
+        }
+        return i;
+    }
+
+    private static int skipDigits(String value, int i, boolean underscore) {
+        while (i < value.length()
+                && (isDigit(value.charAt(i)) || (underscore && value.charAt(i) == '_'))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipBlanks(String value, int i) {
+        while (i < value.length() && (value.charAt(i) == ' ' || value.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the position after [0-9]{1,2} or -1 if there is no digit
+     */
+    private static int skipOneOrTwoDigits(String value, int i) {
+        if (i >= value.length() || !isDigit(value.charAt(i))) {
+            return -1;
+        }
+        i++;
+        if (i < value.length() && isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the position after (:[0-5]?[0-9])+ or -1 if it is not found. A
+     *         digit may not follow it, so the longest match is taken.
+     */
+    private static int skipSexagesimal(String value, int i) {
+        int length = value.length();
+        boolean found = false;
+        while (i < length && value.charAt(i) == ':') {
+            i++;
+            if (i == length || !isDigit(value.charAt(i))) {
+                return -1;
+            }
+            if (i + 1 < length && value.charAt(i) <= '5' && isDigit(value.charAt(i + 1))) {
+                i += 2;
+            } else {
+                i++;
+            }
+            found = true;
+        }
+        return found ? i : -1;
+    }
+
+    /**
+     * @return true when the rest of the value is ([eE][-+]?[0-9]+)?
+     */
+    private static boolean isExponent(String value, int i) {
+        int length = value.length();
+        if (i == length) {
+            return true;
+        }
+        if (value.charAt(i) != 'e' && value.charAt(i) != 'E') {
+            return false;
+        }
+        int start = skipSign(value, i + 1);
+        int end = skipDigits(value, start, false);
+        return end > start && end == length;
+    }
+}
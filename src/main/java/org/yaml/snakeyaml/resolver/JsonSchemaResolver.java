@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.regex.Pattern;
+
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Resolver for the YAML 1.2 JSON schema. Only the JSON literals null, true,
+ * false and the JSON numbers are resolved, any other plain scalar is a
+ * string. The empty value is still null to load '<code>key:</code>'.
+ */
+public class JsonSchemaResolver extends Resolver {
+    public static final Pattern JSON_BOOL = Pattern.compile("^(?:true|false)$");
+    public static final Pattern JSON_FLOAT = Pattern
+            .compile("^-?(?:0|[1-9][0-9]*)(?:\\.[0-9]*)?(?:[eE][-+]?[0-9]+)?$");
+    public static final Pattern JSON_INT = Pattern.compile("^-?(?:0|[1-9][0-9]*)$");
+    public static final Pattern JSON_NULL = Pattern.compile("^(?:null)$");
+
+    @Override
+    protected void addImplicitResolvers() {
+        addImplicitResolver(Tag.BOOL, JSON_BOOL, "tf");
+        // INT must be before FLOAT because FLOAT matches INT
+        addImplicitResolver(Tag.INT, JSON_INT, "-0123456789");
+        addImplicitResolver(Tag.FLOAT, JSON_FLOAT, "-0123456789");
+        addImplicitResolver(Tag.NULL, JSON_NULL, "n");
+        addImplicitResolver(Tag.NULL, EMPTY, null);
+    }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.yaml.snakeyaml.events.ImplicitTuple;
 import org.yaml.snakeyaml.nodes.NodeId;
 import org.yaml.snakeyaml.nodes.Tag;
 
@@ -109,20 +110,19 @@ public class Resolver {
                 resolvers = yamlImplicitResolvers.get(value.charAt(0));
             }
             if (resolvers != null) {
-                for (ResolverTuple v : resolvers) {
-                    Tag tag = v.getTag();
-                    Pattern regexp = v.getRegexp();
-                    if (regexp.matcher(value).matches()) {
-                        return tag;
+                for (int i = 0; i < resolvers.size(); i++) {
+                    ResolverTuple v = resolvers.get(i);
+                    if (v.matches(value)) {
+                        return v.getTag();
                     }
                 }
             }
-            if (yamlImplicitResolvers.containsKey(null)) {
-                for (ResolverTuple v : yamlImplicitResolvers.get(null)) {
-                    Tag tag = v.getTag();
-                    Pattern regexp = v.getRegexp();
-                    if (regexp.matcher(value).matches()) {
-                        return tag;
+            resolvers = yamlImplicitResolvers.get(null);
+            if (resolvers != null) {
+                for (int i = 0; i < resolvers.size(); i++) {
+                    ResolverTuple v = resolvers.get(i);
+                    if (v.matches(value)) {
+                        return v.getTag();
                     }
                 }
             }
@@ -136,4 +136,21 @@ public class Resolver {
             return Tag.MAP;
         }
     }
+
+    /**
+     * Check whether the tag of a scalar may be omitted when it is emitted.
+     * Both flags are detected with one evaluation of the implicit resolvers
+     * (the resolution of a non-implicit scalar does not match the value).
+     *
+     * @param tag
+     *            the tag of the scalar node
+     * @param value
+     *            the value of the scalar node
+     * @return the shared instance with the plain and non-plain flags
+     */
+    public ImplicitTuple resolveImplicit(Tag tag, String value) {
+        boolean plain = tag.equals(resolve(NodeId.scalar, value, true));
+        boolean nonPlain = tag.equals(resolve(NodeId.scalar, value, false));
+        return ImplicitTuple.valueOf(plain, nonPlain);
+    }
 }
\ No newline at end of file
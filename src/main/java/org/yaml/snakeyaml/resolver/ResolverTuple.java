@@ -22,10 +22,13 @@ import org.yaml.snakeyaml.nodes.Tag;
 final class ResolverTuple {
     private final Tag tag;
     private final Pattern regexp;
+    // the standard patterns are recognized without the regular expression
+    private final int kind;
 
     public ResolverTuple(Tag tag, Pattern regexp) {
         this.tag = tag;
         this.regexp = regexp;
+        this.kind = ImplicitTypeMatcher.kindOf(regexp);
     }
 
     public Tag getTag() {
@@ -36,6 +39,13 @@ final class ResolverTuple {
         return regexp;
     }
 
+    public boolean matches(String value) {
+        if (kind == ImplicitTypeMatcher.CUSTOM) {
+            return regexp.matcher(value).matches();
+        }
+        return ImplicitTypeMatcher.matches(kind, value);
+    }
+
     @Override
     public String toString() {
         return "Tuple tag=" + tag + " regexp=" + regexp;
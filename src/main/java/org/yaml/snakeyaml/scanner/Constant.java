@@ -38,6 +38,14 @@ public final class Constant {
 
     public final static Constant ALPHA = new Constant(ALPHA_S);
 
+    // the characters which may end a chunk of a plain scalar in the block
+    // context (':' ends it only when it is followed by a blank)
+    public final static Constant PLAIN_BLOCK_END = new Constant(NULL_BL_T_LINEBR_S + ":");
+    // the characters which end a chunk of a plain scalar in the flow context
+    public final static Constant PLAIN_FLOW_END = new Constant(NULL_BL_T_LINEBR_S + ",:?[]{}");
+    // the characters which end the non-space chunk of a quoted scalar
+    public final static Constant QUOTED_END = new Constant(NULL_BL_T_LINEBR_S + "\'\"\\");
+
     private String content;
     boolean[] contains = new boolean[128];
     boolean noASCII = false;
@@ -19,12 +19,11 @@ import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.error.Mark;
 import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.reader.StreamReader;
@@ -50,7 +49,9 @@ import org.yaml.snakeyaml.tokens.TagToken;
 import org.yaml.snakeyaml.tokens.TagTuple;
 import org.yaml.snakeyaml.tokens.Token;
 import org.yaml.snakeyaml.tokens.ValueToken;
-import org.yaml.snakeyaml.util.ArrayStack;
+import org.yaml.snakeyaml.util.ArrayQueue;
+import org.yaml.snakeyaml.util.IntStack;
+import org.yaml.snakeyaml.util.SymbolTable;
 import org.yaml.snakeyaml.util.UriEncoder;
 
 /**
@@ -162,8 +163,8 @@ public final class ScannerImpl implements Scanner {
     // context.
     private int flowLevel = 0;
 
-    // List of processed tokens that are not yet emitted.
-    private List<Token> tokens;
+    // Queue of processed tokens that are not yet emitted.
+    private final ArrayQueue<Token> tokens;
 
     // Number of tokens that were emitted through the `get_token` method.
     private int tokensTaken = 0;
@@ -172,7 +173,7 @@ public final class ScannerImpl implements Scanner {
     private int indent = -1;
 
     // Past indentation levels.
-    private ArrayStack<Integer> indents;
+    private final IntStack indents;
 
     // Variables related to simple keys treatment. See PyYAML.
 
@@ -201,20 +202,42 @@ public final class ScannerImpl implements Scanner {
     private boolean allowSimpleKey = true;
 
     /*
-     * Keep track of possible simple keys. This is a dictionary. The key is
+     * Keep track of possible simple keys. The array is indexed by
      * `flow_level`; there can be no more that one possible simple key for each
-     * level. The value is a SimpleKey record: (token_number, required, index,
-     * line, column, mark) A simple key may start with ALIAS, ANCHOR, TAG,
-     * SCALAR(flow), '[', or '{' tokens.
+     * level. The SimpleKey records (token_number, required, index, line,
+     * column, mark) are reused, an empty record means that there is no key on
+     * the level. A simple key may start with ALIAS, ANCHOR, TAG, SCALAR(flow),
+     * '[', or '{' tokens.
      */
-    private Map<Integer, SimpleKey> possibleSimpleKeys;
+    private SimpleKey[] possibleSimpleKeys;
+
+    // The number of non-empty records in possibleSimpleKeys.
+    private int possibleSimpleKeysCount = 0;
+
+    // the state remembered by saveState()
+    private Saved saved;
+
+    // the table for the plain keys (null when the keys are not canonicalized)
+    private final SymbolTable keySymbols;
+
+    // the scalars nested in at least this number of collections are scanned
+    // without their values (0 when the values are always kept)
+    private int skipDepth = 0;
+
+    // the column of the entries of the skipped indentless sequence (-1 when
+    // the skipped collection is not an indentless sequence)
+    private int skipColumn = -1;
 
     public ScannerImpl(StreamReader reader) {
+        this(reader, new LoaderOptions());
+    }
+
+    public ScannerImpl(StreamReader reader, LoaderOptions options) {
         this.reader = reader;
-        this.tokens = new ArrayList<Token>(100);
-        this.indents = new ArrayStack<Integer>(10);
-        // The order in possibleSimpleKeys is kept for nextPossibleSimpleKey()
-        this.possibleSimpleKeys = new LinkedHashMap<Integer, SimpleKey>();
+        this.keySymbols = options.isCanonicalKeys() ? new SymbolTable() : null;
+        this.tokens = new ArrayQueue<Token>(100);
+        this.indents = new IntStack(10);
+        this.possibleSimpleKeys = new SimpleKey[0];
         fetchStreamStart();// Add the STREAM-START token.
     }
 
@@ -257,11 +280,143 @@ public final class ScannerImpl implements Scanner {
     public Token getToken() {
         if (!this.tokens.isEmpty()) {
             this.tokensTaken++;
-            return this.tokens.remove(0);
+            return this.tokens.remove();
         }
         return null;
     }
 
+    /**
+     * Scan the scalars nested in at least the given number of collections
+     * without building their values (the values of such ScalarTokens are
+     * empty). The mode ends when the scanner leaves those collections, so the
+     * scalars after the skipped part keep their values even when they are
+     * scanned ahead. The tokens and their marks are still created.
+     * 
+     * @param depth
+     *            the number of the open block and flow collections which
+     *            includes the skipped one (0 to keep all the values)
+     * @param entryColumn
+     *            the column of the '-' entries when the skipped collection is
+     *            an indentless sequence (it has no indentation of its own and
+     *            ends with any other token in this column), -1 otherwise
+     */
+    public void skipValues(int depth, int entryColumn) {
+        if (depth > 0 && entryColumn < 0 && this.flowLevel + this.indents.size() < depth) {
+            // the skipped collection is already scanned
+            depth = 0;
+        }
+        this.skipDepth = depth;
+        this.skipColumn = depth > 0 ? entryColumn : -1;
+    }
+
+    /**
+     * @return true when the value of the scalar at the current position is
+     *         not required
+     */
+    private boolean isSkippingValue() {
+        return this.skipDepth > 0 && this.flowLevel + this.indents.size() >= this.skipDepth;
+    }
+
+    /**
+     * Stop skipping the values when a collection is closed and the scanner
+     * leaves the skipped collection (the entries of an indentless sequence
+     * are on the level of the parent mapping)
+     */
+    private void checkSkipEnd() {
+        int depth = this.flowLevel + this.indents.size();
+        if (depth < this.skipDepth && (this.skipColumn < 0 || depth < this.skipDepth - 1)) {
+            this.skipDepth = 0;
+            this.skipColumn = -1;
+        }
+    }
+
+    /**
+     * Stop skipping the values when the next token ends the skipped
+     * indentless sequence
+     */
+    private void checkIndentlessSkipEnd() {
+        if (this.flowLevel == 0 && reader.getColumn() <= this.skipColumn
+                && !(reader.peek() == '-' && checkBlockEntry())) {
+            this.skipDepth = 0;
+            this.skipColumn = -1;
+        }
+    }
+
+    /**
+     * Remember the current state of the scanner and the position of the
+     * reader. It allows to repeat the scanning with restoreState() when a
+     * non-blocking reader runs out of data in the middle of a token.
+     */
+    public void saveState() {
+        if (this.saved == null) {
+            this.saved = new Saved();
+        }
+        this.saved.done = this.done;
+        this.saved.flowLevel = this.flowLevel;
+        this.saved.tokens.copyFrom(this.tokens);
+        this.saved.tokensTaken = this.tokensTaken;
+        this.saved.indent = this.indent;
+        this.saved.indents.copyFrom(this.indents);
+        this.saved.allowSimpleKey = this.allowSimpleKey;
+        this.saved.possibleSimpleKeys = copyOf(this.saved.possibleSimpleKeys,
+                this.possibleSimpleKeys);
+        this.saved.possibleSimpleKeysCount = this.possibleSimpleKeysCount;
+        this.saved.skipDepth = this.skipDepth;
+        this.saved.skipColumn = this.skipColumn;
+        reader.savePosition();
+    }
+
+    /**
+     * Go back to the state remembered by saveState()
+     */
+    public void restoreState() {
+        if (this.saved == null) {
+            throw new YAMLException("The state is not saved.");
+        }
+        this.done = this.saved.done;
+        this.flowLevel = this.saved.flowLevel;
+        this.tokens.copyFrom(this.saved.tokens);
+        this.tokensTaken = this.saved.tokensTaken;
+        this.indent = this.saved.indent;
+        this.indents.copyFrom(this.saved.indents);
+        this.allowSimpleKey = this.saved.allowSimpleKey;
+        this.possibleSimpleKeys = copyOf(this.possibleSimpleKeys,
+                this.saved.possibleSimpleKeys);
+        this.possibleSimpleKeysCount = this.saved.possibleSimpleKeysCount;
+        this.skipDepth = this.saved.skipDepth;
+        this.skipColumn = this.saved.skipColumn;
+        reader.restorePosition();
+    }
+
+    /**
+     * Copy the records of the simple keys reusing the target records
+     */
+    private static SimpleKey[] copyOf(SimpleKey[] target, SimpleKey[] source) {
+        target = ensureCapacity(target, source.length);
+        for (int i = 0; i < source.length; i++) {
+            target[i].copyFrom(source[i]);
+        }
+        for (int i = source.length; i < target.length; i++) {
+            target[i].clear();
+        }
+        return target;
+    }
+
+    /**
+     * Make sure that there are records for the given number of levels
+     */
+    private static SimpleKey[] ensureCapacity(SimpleKey[] keys, int length) {
+        if (keys.length >= length) {
+            return keys;
+        }
+        SimpleKey[] result = new SimpleKey[Math.max(length, keys.length * 2)];
+        System.arraycopy(keys, 0, result, 0, keys.length);
+        for (int i = keys.length; i < result.length; i++) {
+            result[i] = new SimpleKey();
+        }
+        return result;
+    }
+
     // Private methods.
     /**
      * Returns true if more tokens should be scanned.
@@ -292,6 +447,9 @@ public final class ScannerImpl implements Scanner {
         // Compare the current indentation and column. It may add some tokens
         // and decrease the current indentation level.
         unwindIndent(reader.getColumn());
+        if (this.skipColumn >= 0) {
+            checkIndentlessSkipEnd();
+        }
         // Peek the next character, to decide what the next group of tokens
         // will look like.
         char ch = reader.peek();
@@ -429,11 +587,17 @@ public final class ScannerImpl implements Scanner {
      */
     private int nextPossibleSimpleKey() {
         /*
-         * the implementation is not as in PyYAML. Because
-         * this.possibleSimpleKeys is ordered we can simply take the first key
+         * the implementation is not as in PyYAML. The keys on the outer levels
+         * are saved before the keys on the inner levels, so the first key
+         * found has the lowest number
          */
-        if (!this.possibleSimpleKeys.isEmpty()) {
-            return this.possibleSimpleKeys.values().iterator().next().getTokenNumber();
+        if (this.possibleSimpleKeysCount > 0) {
+            for (int level = 0; level < this.possibleSimpleKeys.length; level++) {
+                SimpleKey key = this.possibleSimpleKeys[level];
+                if (!key.isEmpty()) {
+                    return key.getTokenNumber();
+                }
+            }
         }
         return -1;
     }
@@ -449,10 +613,12 @@ public final class ScannerImpl implements Scanner {
      * </pre>
      */
     private void stalePossibleSimpleKeys() {
-        if (!this.possibleSimpleKeys.isEmpty()) {
-            for (Iterator<SimpleKey> iterator = this.possibleSimpleKeys.values().iterator(); iterator
-                    .hasNext();) {
-                SimpleKey key = iterator.next();
+        if (this.possibleSimpleKeysCount > 0) {
+            for (int level = 0; level < this.possibleSimpleKeys.length; level++) {
+                SimpleKey key = this.possibleSimpleKeys[level];
+                if (key.isEmpty()) {
+                    continue;
+                }
                 if ((key.getLine() != reader.getLine())
                         || (reader.getIndex() - key.getIndex() > 1024)) {
                     // If the key is not on the same line as the current
@@ -465,7 +631,8 @@ public final class ScannerImpl implements Scanner {
                         throw new ScannerException("while scanning a simple key", key.getMark(),
                                 "could not find expected ':'", reader.getMark());
                     }
-                    iterator.remove();
+                    key.clear();
+                    this.possibleSimpleKeysCount--;
                 }
             }
         }
@@ -498,10 +665,11 @@ public final class ScannerImpl implements Scanner {
         // position.
         if (this.allowSimpleKey) {
             removePossibleSimpleKey();
+            this.possibleSimpleKeys = ensureCapacity(this.possibleSimpleKeys, this.flowLevel + 1);
             int tokenNumber = this.tokensTaken + this.tokens.size();
-            SimpleKey key = new SimpleKey(tokenNumber, required, reader.getIndex(),
+            this.possibleSimpleKeys[this.flowLevel].set(tokenNumber, required, reader.getIndex(),
                     reader.getLine(), this.reader.getColumn(), this.reader.getMark());
-            this.possibleSimpleKeys.put(this.flowLevel, key);
+            this.possibleSimpleKeysCount++;
         }
     }
 
@@ -509,10 +677,16 @@ public final class ScannerImpl implements Scanner {
      * Remove the saved possible key position at the current flow level.
      */
     private void removePossibleSimpleKey() {
-        SimpleKey key = possibleSimpleKeys.remove(flowLevel);
-        if (key != null && key.isRequired()) {
-            throw new ScannerException("while scanning a simple key", key.getMark(),
-                    "could not find expected ':'", reader.getMark());
+        if (flowLevel < possibleSimpleKeys.length) {
+            SimpleKey key = possibleSimpleKeys[flowLevel];
+            if (!key.isEmpty()) {
+                if (key.isRequired()) {
+                    throw new ScannerException("while scanning a simple key", key.getMark(),
+                            "could not find expected ':'", reader.getMark());
+                }
+                key.clear();
+                possibleSimpleKeysCount--;
+            }
         }
     }
 
@@ -550,6 +724,7 @@ public final class ScannerImpl implements Scanner {
             Mark mark = reader.getMark();
             this.indent = this.indents.pop();
             this.tokens.add(new BlockEndToken(mark, mark));
+            checkSkipEnd();
         }
     }
 
@@ -587,7 +762,10 @@ public final class ScannerImpl implements Scanner {
         // Reset simple keys.
         removePossibleSimpleKey();
         this.allowSimpleKey = false;
-        this.possibleSimpleKeys.clear();
+        for (int level = 0; level < this.possibleSimpleKeys.length; level++) {
+            this.possibleSimpleKeys[level].clear();
+        }
+        this.possibleSimpleKeysCount = 0;
 
         // Read the token.
         Mark mark = reader.getMark();
@@ -725,8 +903,12 @@ public final class ScannerImpl implements Scanner {
         // Reset possible simple key on the current level.
         removePossibleSimpleKey();
 
-        // Decrease the flow level.
-        this.flowLevel--;
+        // Decrease the flow level. The unexpected ']' or '}' in the block
+        // context is reported by the parser.
+        if (this.flowLevel > 0) {
+            this.flowLevel--;
+        }
+        checkSkipEnd();
 
         // No simple keys after ']' or '}'.
         this.allowSimpleKey = false;
@@ -842,18 +1024,22 @@ public final class ScannerImpl implements Scanner {
      */
     private void fetchValue() {
         // Do we determine a simple key?
-        SimpleKey key = this.possibleSimpleKeys.remove(this.flowLevel);
-        if (key != null) {
+        this.possibleSimpleKeys = ensureCapacity(this.possibleSimpleKeys, this.flowLevel + 1);
+        SimpleKey key = this.possibleSimpleKeys[this.flowLevel];
+        if (!key.isEmpty()) {
+            Mark mark = key.getMark();
+            int position = key.getTokenNumber() - this.tokensTaken;
+            int column = key.getColumn();
+            key.clear();
+            this.possibleSimpleKeysCount--;
             // Add KEY.
-            this.tokens.add(key.getTokenNumber() - this.tokensTaken, new KeyToken(key.getMark(),
-                    key.getMark()));
+            this.tokens.add(position, new KeyToken(mark, mark));
 
             // If this key starts a new block mapping, we need to add
             // BLOCK-MAPPING-START.
             if (this.flowLevel == 0) {
-                if (addIndent(key.getColumn())) {
-                    this.tokens.add(key.getTokenNumber() - this.tokensTaken,
-                            new BlockMappingStartToken(key.getMark(), key.getMark()));
+                if (addIndent(column)) {
+                    this.tokens.add(position, new BlockMappingStartToken(mark, mark));
                 }
             }
             // There cannot be two simple keys one after another.
@@ -1565,6 +1751,7 @@ public final class ScannerImpl implements Scanner {
         } else {
             folded = false;
         }
+        boolean skip = isSkippingValue();
         StringBuilder chunks = new StringBuilder();
         Mark startMark = reader.getMark();
         // Scan the header.
@@ -1601,11 +1788,12 @@ public final class ScannerImpl implements Scanner {
         while (this.reader.getColumn() == indent && reader.peek() != '\0') {
             chunks.append(breaks);
             boolean leadingNonSpace = " \t".indexOf(reader.peek()) == -1;
-            int length = 0;
-            while (Constant.NULL_OR_LINEBR.hasNo(reader.peek(length))) {
-                length++;
+            int length = reader.find(Constant.NULL_OR_LINEBR, 0);
+            if (skip) {
+                reader.forward(length);
+            } else {
+                chunks.append(reader.prefixForward(length));
             }
-            chunks.append(reader.prefixForward(length));
             lineBreak = scanLineBreak();
             Object[] brme = scanBlockScalarBreaks(indent);
             breaks = (String) brme[0];
@@ -1637,7 +1825,7 @@ public final class ScannerImpl implements Scanner {
             chunks.append(breaks);
         }
         // We are done.
-        return new ScalarToken(chunks.toString(), false, startMark, endMark, style);
+        return new ScalarToken(skip ? "" : chunks.toString(), false, startMark, endMark, style);
     }
 
     /**
@@ -1836,39 +2024,55 @@ public final class ScannerImpl implements Scanner {
         } else {
             _double = false;
         }
-        StringBuilder chunks = new StringBuilder();
+        boolean skip = isSkippingValue();
         Mark startMark = reader.getMark();
         char quote = reader.peek();
         reader.forward();
-        chunks.append(scanFlowScalarNonSpaces(_double, startMark));
-        while (reader.peek() != quote) {
-            chunks.append(scanFlowScalarSpaces(startMark));
-            chunks.append(scanFlowScalarNonSpaces(_double, startMark));
+        String value = scanFlowScalarNonSpaces(_double, skip, startMark);
+        if (reader.peek() != quote) {
+            // the scalar contains spaces or line breaks
+            StringBuilder chunks = new StringBuilder(value);
+            while (reader.peek() != quote) {
+                chunks.append(scanFlowScalarSpaces(startMark));
+                chunks.append(scanFlowScalarNonSpaces(_double, skip, startMark));
+            }
+            value = chunks.toString();
         }
         reader.forward();
         Mark endMark = reader.getMark();
-        return new ScalarToken(chunks.toString(), false, startMark, endMark, style);
+        return new ScalarToken(skip ? "" : value, false, startMark, endMark, style);
     }
 
     /**
-     * Scan some number of flow-scalar non-space characters.
+     * Scan some number of flow-scalar non-space characters. The runs without
+     * escape sequences are not copied when the value is skipped.
      */
-    private String scanFlowScalarNonSpaces(boolean doubleQuoted, Mark startMark) {
+    private String scanFlowScalarNonSpaces(boolean doubleQuoted, boolean skip, Mark startMark) {
         // See the specification for details.
-        StringBuilder chunks = new StringBuilder();
+        // The builder is only created when an escape sequence is found
+        StringBuilder chunks = null;
         while (true) {
             // Scan through any number of characters which are not: NUL, blank,
             // tabs, line breaks, single-quotes, double-quotes, or backslashes.
-            int length = 0;
-            while (Constant.NULL_BL_T_LINEBR.hasNo(reader.peek(length), "\'\"\\")) {
-                length++;
-            }
-            if (length != 0) {
-                chunks.append(reader.prefixForward(length));
+            int length = reader.find(Constant.QUOTED_END, 0);
+            String chunk = "";
+            if (skip) {
+                reader.forward(length);
+            } else if (length != 0) {
+                chunk = reader.prefixForward(length);
             }
             // Depending on our quoting-type, the characters ', " and \ have
             // differing meanings.
             char ch = reader.peek();
+            boolean escaped = ch == '\\' || (doubleQuoted ? ch == '\''
+                    : ch == '"' || (ch == '\'' && reader.peek(1) == '\''));
+            if (!escaped) {
+                return chunks == null ? chunk : chunks.append(chunk).toString();
+            }
+            if (chunks == null) {
+                chunks = new StringBuilder();
+            }
+            chunks.append(chunk);
             if (!doubleQuoted && ch == '\'' && reader.peek(1) == '\'') {
                 chunks.append("'");
                 reader.forward(2);
@@ -1907,8 +2111,6 @@ public final class ScannerImpl implements Scanner {
                             "found unknown escape character " + ch + "(" + ((int) ch) + ")",
                             reader.getMark());
                 }
-            } else {
-                return chunks.toString();
             }
         }
     }
@@ -1984,7 +2186,10 @@ public final class ScannerImpl implements Scanner {
      * </pre>
      */
     private Token scanPlain() {
-        StringBuilder chunks = new StringBuilder();
+        // the first chunk is used as is when the scalar has only one chunk
+        String value = "";
+        StringBuilder chunks = null;
+        boolean skip = isSkippingValue();
         Mark startMark = reader.getMark();
         Mark endMark = startMark;
         int indent = this.indent + 1;
@@ -1996,15 +2201,19 @@ public final class ScannerImpl implements Scanner {
             if (reader.peek() == '#') {
                 break;
             }
-            while (true) {
-                ch = reader.peek(length);
-                if (Constant.NULL_BL_T_LINEBR.has(ch)
-                        || (this.flowLevel == 0 && ch == ':' && Constant.NULL_BL_T_LINEBR
-                                .has(reader.peek(length + 1)))
-                        || (this.flowLevel != 0 && ",:?[]{}".indexOf(ch) != -1)) {
-                    break;
+            if (this.flowLevel == 0) {
+                while (true) {
+                    length = reader.find(Constant.PLAIN_BLOCK_END, length);
+                    ch = reader.peek(length);
+                    // ':' is a part of the scalar unless a blank follows it
+                    if (ch != ':' || Constant.NULL_BL_T_LINEBR.has(reader.peek(length + 1))) {
+                        break;
+                    }
+                    length++;
                 }
-                length++;
+            } else {
+                length = reader.find(Constant.PLAIN_FLOW_END, 0);
+                ch = reader.peek(length);
             }
             // It's not clear what we should do with ':' in the flow context.
             if (this.flowLevel != 0 && ch == ':'
@@ -2018,8 +2227,27 @@ public final class ScannerImpl implements Scanner {
                 break;
             }
             this.allowSimpleKey = false;
-            chunks.append(spaces);
-            chunks.append(reader.prefixForward(length));
+            String chunk;
+            if (skip) {
+                // the value is not required, only the end of the scalar
+                reader.forward(length);
+                chunk = "";
+            } else if (ch == ':' && keySymbols != null && chunks == null && value.length() == 0) {
+                // the whole scalar is a single chunk in the key position
+                chunk = reader.prefixForward(length, keySymbols);
+            } else {
+                chunk = reader.prefixForward(length);
+            }
+            if (chunks != null) {
+                chunks.append(spaces);
+                chunks.append(chunk);
+            } else if (value.length() == 0) {
+                value = chunk;
+            } else {
+                chunks = new StringBuilder(value);
+                chunks.append(spaces);
+                chunks.append(chunk);
+            }
             endMark = reader.getMark();
             spaces = scanPlainSpaces();
             // System.out.printf("spaces[%s]\n", spaces);
@@ -2028,7 +2256,10 @@ public final class ScannerImpl implements Scanner {
                 break;
             }
         }
-        return new ScalarToken(chunks.toString(), startMark, endMark, true);
+        if (chunks != null) {
+            value = chunks.toString();
+        }
+        return new ScalarToken(value, startMark, endMark, true);
     }
 
     /**
@@ -2261,6 +2492,20 @@ public final class ScannerImpl implements Scanner {
         return "";
     }
 
+    private static class Saved {
+        private boolean done;
+        private int flowLevel;
+        private final ArrayQueue<Token> tokens = new ArrayQueue<Token>(100);
+        private int tokensTaken;
+        private int indent;
+        private final IntStack indents = new IntStack(10);
+        private boolean allowSimpleKey;
+        private SimpleKey[] possibleSimpleKeys = new SimpleKey[0];
+        private int possibleSimpleKeysCount;
+        private int skipDepth;
+        private int skipColumn;
+    }
+
     /**
      * Chomping the tail may have 3 values - yes, no, not defined.
      */
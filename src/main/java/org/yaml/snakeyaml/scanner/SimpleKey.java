@@ -33,7 +33,21 @@ final class SimpleKey {
     private int column;
     private Mark mark;
 
+    /**
+     * Create an empty record
+     */
+    public SimpleKey() {
+        clear();
+    }
+
     public SimpleKey(int tokenNumber, boolean required, int index, int line, int column, Mark mark) {
+        set(tokenNumber, required, index, line, column, mark);
+    }
+
+    /**
+     * The records are reused by the scanner, one for every flow level.
+     */
+    public void set(int tokenNumber, boolean required, int index, int line, int column, Mark mark) {
         this.tokenNumber = tokenNumber;
         this.required = required;
         this.index = index;
@@ -42,6 +56,21 @@ final class SimpleKey {
         this.mark = mark;
     }
 
+    public void copyFrom(SimpleKey key) {
+        set(key.tokenNumber, key.required, key.index, key.line, key.column, key.mark);
+    }
+
+    /**
+     * Mark the record as empty (there is no possible simple key)
+     */
+    public void clear() {
+        set(-1, false, 0, 0, 0, null);
+    }
+
+    public boolean isEmpty() {
+        return this.tokenNumber < 0;
+    }
+
     public int getTokenNumber() {
         return this.tokenNumber;
     }
@@ -49,6 +49,11 @@ import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.resolver.Resolver;
 
 public final class Serializer {
+    // the implicit flags of the short scalars (keys, enum-like values) are
+    // cached because the same values are usually repeated in a document
+    private final static int IMPLICIT_CACHE_SIZE = 256;
+    private final static int IMPLICIT_CACHE_MAX_LENGTH = 32;
+
     private final Emitable emitter;
     private final Resolver resolver;
     private boolean explicitStart;
@@ -60,6 +65,9 @@ public final class Serializer {
     private int lastAnchorId;
     private Boolean closed;
     private Tag explicitRoot;
+    private final String[] cachedValues;
+    private final Tag[] cachedTags;
+    private final ImplicitTuple[] cachedTuples;
 
     public Serializer(Emitable emitter, Resolver resolver, DumperOptions opts, Tag rootTag) {
         this.emitter = emitter;
@@ -75,6 +83,9 @@ public final class Serializer {
         this.lastAnchorId = 0;
         this.closed = null;
         this.explicitRoot = rootTag;
+        this.cachedValues = new String[IMPLICIT_CACHE_SIZE];
+        this.cachedTags = new Tag[IMPLICIT_CACHE_SIZE];
+        this.cachedTuples = new ImplicitTuple[IMPLICIT_CACHE_SIZE];
     }
 
     public void open() throws IOException {
@@ -160,6 +171,25 @@ public final class Serializer {
         return "id" + anchorId;
     }
 
+    /**
+     * The cache is direct-mapped: a collision replaces the previous entry.
+     */
+    private ImplicitTuple resolveImplicit(Tag tag, String value) {
+        if (value.length() > IMPLICIT_CACHE_MAX_LENGTH) {
+            return this.resolver.resolveImplicit(tag, value);
+        }
+        int hash = value.hashCode() * 31 + tag.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (IMPLICIT_CACHE_SIZE - 1);
+        if (value.equals(cachedValues[index]) && tag.equals(cachedTags[index])) {
+            return cachedTuples[index];
+        }
+        ImplicitTuple tuple = this.resolver.resolveImplicit(tag, value);
+        cachedValues[index] = value;
+        cachedTags[index] = tag;
+        cachedTuples[index] = tuple;
+        return tuple;
+    }
+
     private void serializeNode(Node node, Node parent) throws IOException {
         if (node.getNodeId() == NodeId.anchor) {
             node = ((AnchorNode) node).getRealNode();
@@ -172,10 +202,7 @@ public final class Serializer {
             switch (node.getNodeId()) {
             case scalar:
                 ScalarNode scalarNode = (ScalarNode) node;
-                Tag detectedTag = this.resolver.resolve(NodeId.scalar, scalarNode.getValue(), true);
-                Tag defaultTag = this.resolver.resolve(NodeId.scalar, scalarNode.getValue(), false);
-                ImplicitTuple tuple = new ImplicitTuple(node.getTag().equals(detectedTag), node
-                        .getTag().equals(defaultTag));
+                ImplicitTuple tuple = resolveImplicit(node.getTag(), scalarNode.getValue());
                 ScalarEvent event = new ScalarEvent(tAlias, node.getTag().getValue(), tuple,
                         scalarNode.getValue(), null, null, scalarNode.getStyle());
                 this.emitter.emit(event);
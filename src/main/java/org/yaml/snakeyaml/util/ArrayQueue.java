@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Queue kept in a ring buffer. Taking the first element is O(1) and an
+ * element can be inserted in the middle (only the elements after it are
+ * moved).
+ */
+public class ArrayQueue<T> {
+    private Object[] elements;
+    // the index of the first element
+    private int head;
+    private int size;
+
+    public ArrayQueue(int initSize) {
+        elements = new Object[Math.max(initSize, 1)];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Add the element to the end of the queue
+     */
+    public void add(T obj) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = obj;
+        size++;
+    }
+
+    /**
+     * Insert the element at the given position counted from the head
+     */
+    public void add(int index, T obj) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        for (int i = size; i > index; i--) {
+            elements[(head + i) % elements.length] = elements[(head + i - 1) % elements.length];
+        }
+        elements[(head + index) % elements.length] = obj;
+        size++;
+    }
+
+    /**
+     * @return the element at the given position counted from the head
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) elements[(head + index) % elements.length];
+    }
+
+    /**
+     * Remove the first element
+     *
+     * @return the removed element
+     */
+    @SuppressWarnings("unchecked")
+    public T remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("The queue is empty.");
+        }
+        T obj = (T) elements[head];
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        size--;
+        return obj;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) % elements.length] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Replace the elements with the elements of another queue
+     */
+    public void copyFrom(ArrayQueue<T> other) {
+        clear();
+        if (other.size > elements.length) {
+            elements = new Object[other.elements.length];
+        }
+        for (int i = 0; i < other.size; i++) {
+            elements[i] = other.elements[(other.head + i) % other.elements.length];
+        }
+        size = other.size;
+    }
+
+    private void grow() {
+        Object[] data = new Object[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+            data[i] = elements[(head + i) % elements.length];
+        }
+        elements = data;
+        head = 0;
+    }
+}
@@ -36,7 +36,19 @@ public class ArrayStack<T> {
         return stack.isEmpty();
     }
 
+    public int size() {
+        return stack.size();
+    }
+
     public void clear() {
         stack.clear();
     }
+
+    /**
+     * Replace the elements with the elements of another stack
+     */
+    public void copyFrom(ArrayStack<T> other) {
+        stack.clear();
+        stack.addAll(other.stack);
+    }
 }
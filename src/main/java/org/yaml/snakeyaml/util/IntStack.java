@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+/**
+ * Stack of primitive int values (no boxing on push and pop)
+ */
+public class IntStack {
+    private int[] stack;
+    private int size;
+
+    public IntStack(int initSize) {
+        stack = new int[Math.max(initSize, 1)];
+        size = 0;
+    }
+
+    public void push(int value) {
+        if (size == stack.length) {
+            int[] data = new int[stack.length * 2];
+            System.arraycopy(stack, 0, data, 0, size);
+            stack = data;
+        }
+        stack[size++] = value;
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("The stack is empty.");
+        }
+        return stack[--size];
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("The stack is empty.");
+        }
+        return stack[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Replace the elements with the elements of another stack
+     */
+    public void copyFrom(IntStack other) {
+        if (other.size > stack.length) {
+            stack = new int[other.stack.length];
+        }
+        System.arraycopy(other.stack, 0, stack, 0, other.size);
+        size = other.size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(stack[i]);
+        }
+        return builder.append("]").toString();
+    }
+}
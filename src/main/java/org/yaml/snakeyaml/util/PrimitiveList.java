@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-size List backed by an array of primitives (int[], double[] ...).
+ * The values are kept unboxed and boxed only when they are read. It is
+ * created by the Constructor for a List property when the TypeDescription
+ * declares a primitive class for its items.
+ */
+public class PrimitiveList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BYTE = 0;
+    private static final int SHORT = 1;
+    private static final int INT = 2;
+    private static final int LONG = 3;
+    private static final int FLOAT = 4;
+    private static final int DOUBLE = 5;
+    private static final int CHAR = 6;
+    private static final int BOOLEAN = 7;
+
+    private final Object array;
+    private final int kind;
+    private final int size;
+
+    /**
+     * @param array
+     *            the array of primitives. It is not copied.
+     */
+    public PrimitiveList(Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        if (componentType == null || !componentType.isPrimitive()) {
+            throw new IllegalArgumentException("Array of primitives expected: "
+                    + array.getClass().getName());
+        }
+        this.array = array;
+        this.kind = kindOf(componentType);
+        this.size = Array.getLength(array);
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == Integer.TYPE) {
+            return INT;
+        } else if (type == Long.TYPE) {
+            return LONG;
+        } else if (type == Double.TYPE) {
+            return DOUBLE;
+        } else if (type == Float.TYPE) {
+            return FLOAT;
+        } else if (type == Short.TYPE) {
+            return SHORT;
+        } else if (type == Byte.TYPE) {
+            return BYTE;
+        } else if (type == Character.TYPE) {
+            return CHAR;
+        } else {
+            return BOOLEAN;
+        }
+    }
+
+    /**
+     * @return the backing array (int[], double[] ...)
+     */
+    public Object getArray() {
+        return array;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        Object value;
+        switch (kind) {
+        case BYTE:
+            value = Byte.valueOf(((byte[]) array)[index]);
+            break;
+        case SHORT:
+            value = Short.valueOf(((short[]) array)[index]);
+            break;
+        case INT:
+            value = Integer.valueOf(((int[]) array)[index]);
+            break;
+        case LONG:
+            value = Long.valueOf(((long[]) array)[index]);
+            break;
+        case FLOAT:
+            value = Float.valueOf(((float[]) array)[index]);
+            break;
+        case DOUBLE:
+            value = Double.valueOf(((double[]) array)[index]);
+            break;
+        case CHAR:
+            value = Character.valueOf(((char[]) array)[index]);
+            break;
+        default:
+            value = Boolean.valueOf(((boolean[]) array)[index]);
+        }
+        return (E) value;
+    }
+
+    /**
+     * Replace the value. A Number is converted to the primitive type of the
+     * array.
+     */
+    @Override
+    public E set(int index, E element) {
+        E previous = get(index);
+        if (element == null) {
+            throw new NullPointerException("Null values are not allowed for primitives.");
+        }
+        switch (kind) {
+        case BYTE:
+            ((byte[]) array)[index] = ((Number) element).byteValue();
+            break;
+        case SHORT:
+            ((short[]) array)[index] = ((Number) element).shortValue();
+            break;
+        case INT:
+            ((int[]) array)[index] = ((Number) element).intValue();
+            break;
+        case LONG:
+            ((long[]) array)[index] = ((Number) element).longValue();
+            break;
+        case FLOAT:
+            ((float[]) array)[index] = ((Number) element).floatValue();
+            break;
+        case DOUBLE:
+            ((double[]) array)[index] = ((Number) element).doubleValue();
+            break;
+        case CHAR:
+            ((char[]) array)[index] = ((Character) element).charValue();
+            break;
+        default:
+            ((boolean[]) array)[index] = ((Boolean) element).booleanValue();
+        }
+        return previous;
+    }
+}
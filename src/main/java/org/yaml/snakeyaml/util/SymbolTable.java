@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+/**
+ * Bounded cache of short Strings. Equal character sequences get the same
+ * String instance without creating an intermediate String for the lookup. The
+ * table is direct-mapped: a collision replaces the previous entry, so the
+ * memory stays bounded for any input.
+ */
+public class SymbolTable {
+    public final static int DEFAULT_CAPACITY = 2048;
+    public final static int DEFAULT_MAX_LENGTH = 32;
+
+    private final String[] symbols;
+    private final int maxLength;
+
+    public SymbolTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param capacity
+     *            the number of entries (rounded up to a power of two)
+     * @param maxLength
+     *            longer sequences are not cached
+     */
+    public SymbolTable(int capacity, int maxLength) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.symbols = new String[size];
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Get the String with the given characters
+     * 
+     * @return the cached instance or a new String (which is cached when it is
+     *         short enough)
+     */
+    public String get(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (symbols.length - 1);
+        String symbol = symbols[slot];
+        if (symbol != null && symbol.length() == length && matches(symbol, chars, offset)) {
+            return symbol;
+        }
+        symbol = new String(chars, offset, length);
+        symbols[slot] = symbol;
+        return symbol;
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+
+public class LoaderOptionsTest extends TestCase {
+
+    public void testDefaultErrorSnippets() {
+        assertTrue(new LoaderOptions().isErrorSnippets());
+        try {
+            new Yaml().load("a: 1\nb: [c\n");
+            fail("Invalid document");
+        } catch (MarkedYAMLException e) {
+            assertNotNull(e.getProblemMark().get_snippet());
+            assertTrue(e.getMessage(), e.getMessage().contains("^"));
+        }
+    }
+
+    public void testNoErrorSnippets() {
+        LoaderOptions options = new LoaderOptions();
+        options.setErrorSnippets(false);
+        Yaml yaml = new Yaml(options);
+        try {
+            yaml.load("a: 1\nb: [c\n");
+            fail("Invalid document");
+        } catch (MarkedYAMLException e) {
+            Mark mark = e.getProblemMark();
+            assertNull(mark.get_snippet());
+            assertEquals(2, mark.getLine());
+            assertEquals(0, mark.getColumn());
+            assertFalse(e.getMessage(), e.getMessage().contains("^"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testLoadWithoutErrorSnippets() {
+        LoaderOptions options = new LoaderOptions();
+        options.setErrorSnippets(false);
+        Yaml yaml = new Yaml(options);
+        Map<String, Object> map = (Map<String, Object>) yaml.load("a: 1\nb: [c, d]\n");
+        assertEquals(2, map.size());
+        Node node = yaml.compose(new StringReader("a: 1\nb: [c, d]\n"));
+        assertEquals(2, node.getEndMark().getLine());
+        assertNull(node.getStartMark().get_snippet());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testCanonicalKeys() {
+        assertFalse(new LoaderOptions().isCanonicalKeys());
+        String doc = "- name: a\n  image: b\n- name: c\n  image: d\n- {name: e}\n- name x: f\n";
+        LoaderOptions options = new LoaderOptions();
+        options.setCanonicalKeys(true);
+        List<Map<String, Object>> list = (List<Map<String, Object>>) new Yaml(options).load(doc);
+        assertEquals(4, list.size());
+        String name = list.get(0).keySet().iterator().next();
+        assertEquals("name", name);
+        assertSame(name, list.get(1).keySet().iterator().next());
+        assertSame(name, list.get(2).keySet().iterator().next());
+        assertEquals("e", list.get(2).get("name"));
+        assertEquals("f", list.get(3).get("name x"));
+        // the same data without the option
+        assertEquals(list, new Yaml().load(doc));
+        list = (List<Map<String, Object>>) new Yaml().load(doc);
+        assertNotSame(list.get(0).keySet().iterator().next(), list.get(1).keySet().iterator()
+                .next());
+    }
+}
@@ -129,6 +129,31 @@ public class PrimitiveArrayTest extends TestCase {
                 ((DoubleArr) yaml.load(pkg + ".DoubleArr [ [ 3, 5 ] ] ")).getDoubles(), 0.001f);
     }
 
+    public void testNotations() {
+        Yaml yaml = new Yaml();
+        // only the plain decimal values are parsed directly
+        Assert.assertArrayEquals(new int[] { 8, 26, 5, 1000, 3630, -7, 0, 7 }, ((IntArr) yaml
+                .load(pkg + ".IntArr [ [ 010, 0x1A, 0b101, 1_000, '1:0:30', -7, -0, +7 ] ]"))
+                .getInts());
+        Assert.assertArrayEquals(new long[] { Long.MAX_VALUE, 123456789012345678L },
+                ((LongArr) yaml.load(pkg + ".LongArr [ [ 9223372036854775807, "
+                        + "123456789012345678 ] ]")).getLongs());
+        double[] doubles = ((DoubleArr) yaml.load(pkg
+                + ".DoubleArr [ [ .inf, -.Inf, 1_0.5, '1:30', 1e3, -.5, +2., -0 ] ]"))
+                .getDoubles();
+        Assert.assertArrayEquals(new double[] { Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, 10.5, 90, 1000, -0.5, 2, -0.0 }, doubles, 0);
+        assertTrue(Double.isNaN(((DoubleArr) yaml.load(pkg + ".DoubleArr [ [ .NaN ] ]"))
+                .getDoubles()[0]));
+    }
+
+    public void testOutOfRange() {
+        tryInvalid(pkg + ".ByteArr [ [ 128 ] ]", NumberFormatException.class);
+        tryInvalid(pkg + ".ShortArr [ [ -32769 ] ]", NumberFormatException.class);
+        tryInvalid(pkg + ".IntArr [ [ 2147483648 ] ]", NumberFormatException.class);
+        tryInvalid(pkg + ".LongArr [ [ 9223372036854775808 ] ]", NumberFormatException.class);
+    }
+
     public void testStringCharArray() {
         Yaml yaml = new Yaml();
 
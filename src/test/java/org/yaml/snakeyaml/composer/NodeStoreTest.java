@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.composer;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+public class NodeStoreTest extends TestCase {
+
+    private NodeStore compose(String data) {
+        return new Yaml().composeStore(new StringReader(data));
+    }
+
+    public void testNavigation() {
+        NodeStore store = compose("a: [1, 'two']\nb: {c: ~}\n");
+        int root = store.getRoot();
+        assertEquals(NodeId.mapping, store.getNodeId(root));
+        assertEquals(Tag.MAP, store.getTag(root));
+        assertEquals(4, store.getChildCount(root));
+        assertEquals(Boolean.FALSE, store.getFlowStyle(root));
+        int key = store.getFirstChild(root);
+        assertEquals("a", store.getValue(key));
+        int a = store.getNextSibling(key);
+        assertEquals(a, store.getValue(root, "a"));
+        assertEquals(Boolean.TRUE, store.getFlowStyle(a));
+        int one = store.getFirstChild(a);
+        assertEquals(Tag.INT, store.getTag(one));
+        assertNull(store.getStyle(one));
+        int two = store.getNextSibling(one);
+        assertEquals("two", store.getValue(two));
+        assertEquals(Tag.STR, store.getTag(two));
+        assertEquals(Character.valueOf('\''), store.getStyle(two));
+        assertEquals(-1, store.getNextSibling(two));
+        assertEquals(0, store.getStartMark(a).getLine());
+        assertEquals(3, store.getStartMark(a).getColumn());
+        assertEquals(13, store.getEndMark(a).getColumn());
+        int c = store.getValue(store.getValue(root, "b"), "c");
+        assertEquals(Tag.NULL, store.getTag(c));
+        assertEquals(-1, store.getFirstChild(c));
+        assertEquals(-1, store.getValue(root, "missing"));
+        assertEquals(-1, store.getValue(a, "a"));
+        try {
+            store.getValue(root);
+            fail("Only a scalar has a value.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Not a scalar: 0", e.getMessage());
+        }
+    }
+
+    public void testAliases() {
+        NodeStore store = compose("a: &x {b: 1}\nc: *x\n");
+        int anchored = store.getValue(0, "a");
+        int alias = store.getValue(0, "c");
+        assertFalse(store.isAlias(anchored));
+        assertTrue(store.isAlias(alias));
+        assertEquals(anchored, store.getTarget(alias));
+        assertEquals(NodeId.mapping, store.getNodeId(alias));
+        assertEquals("1", store.getValue(store.getValue(alias, "b")));
+        // the alias entry keeps its position
+        assertEquals(-1, store.getNextSibling(alias));
+        MappingNode root = (MappingNode) store.toNode(0);
+        assertSame(root.getValue().get(0).getValueNode(), root.getValue().get(1)
+                .getValueNode());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testRecursive() {
+        NodeStore store = compose("&r [x, *r]\n");
+        SequenceNode root = (SequenceNode) store.toNode(0);
+        assertTrue(root.isTwoStepsConstruction());
+        assertSame(root, root.getValue().get(1));
+        List<Object> list = (List<Object>) new Constructor().getData(root);
+        assertSame(list, list.get(1));
+    }
+
+    public void testConstruct() {
+        String[] documents = {
+                "base: &base {a: 1, b: 2}\nmerged:\n  <<: *base\n  b: 3\n  c: [4, {d: 5}]\n",
+                "{a: [1, 2, [3, [4]]], b: !!set {c, d}}\n", "plain\n", "[]\n",
+                "- !!str 1\n- 2001-12-14\n- [-.inf, 0x1F]\n" };
+        for (String data : documents) {
+            Node node = compose(data).toNode(0);
+            assertEquals(data, new Yaml().load(data).toString(), new Constructor()
+                    .getData(node).toString());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testViewIsCopy() {
+        NodeStore store = compose("base: &base {a: 1}\nmerged: {<<: *base, b: 2}\n");
+        Map<String, Object> data = (Map<String, Object>) new Constructor().getData(store
+                .toNode(0));
+        assertEquals("{b=2, a=1}", data.get("merged").toString());
+        // the merge in the constructor does not change the store
+        int merged = store.getValue(0, "merged");
+        assertEquals(4, store.getChildCount(merged));
+        assertTrue(((MappingNode) store.toNode(merged)).isMerged());
+        assertEquals(Tag.MERGE, store.getTag(store.getFirstChild(merged)));
+    }
+
+    public void testDeepDocument() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append('[');
+        }
+        for (int i = 0; i < 10000; i++) {
+            builder.append(']');
+        }
+        NodeStore store = compose(builder.toString());
+        assertEquals(10000, store.size());
+        assertEquals(9998, store.getFirstChild(9997));
+        assertEquals(0, store.getChildCount(9999));
+    }
+
+    public void testStream() {
+        assertNull(compose(""));
+        try {
+            compose("--- 1\n--- 2\n");
+            fail("Only a single document is expected.");
+        } catch (ComposerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("but found another document"));
+        }
+        try {
+            compose("[*a]");
+            fail("The alias is undefined.");
+        } catch (ComposerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("found undefined alias a"));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.composer;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+public class ParallelComposerTest extends TestCase {
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @Override
+    protected void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<Object> load(Iterable<Object> documents) {
+        List<Object> result = new ArrayList<Object>();
+        for (Object document : documents) {
+            result.add(document);
+        }
+        return result;
+    }
+
+    public void testSameAsSequential() {
+        StringBuilder builder = new StringBuilder("# header\nfirst: implicit\n");
+        for (int i = 0; i < 500; i++) {
+            builder.append("--- {id: ").append(i).append(", tags: [a, b]}\n");
+            if (i % 7 == 0) {
+                builder.append("...\n%YAML 1.1\n");
+            }
+            if (i % 11 == 0) {
+                builder.append("---\n- |\n  text\n  --- not a marker\n- &x {a: 1}\n- *x\n");
+            }
+            if (i % 13 == 0) {
+                builder.append("---\n");
+            }
+        }
+        String data = builder.toString();
+        Yaml yaml = new Yaml();
+        List<Object> expected = load(yaml.loadAll(data));
+        assertEquals(expected, load(yaml.loadAll(data, executor)));
+        assertEquals(expected, load(yaml.loadAll(new StringReader(data), executor)));
+    }
+
+    public void testPercentInContent() {
+        Yaml yaml = new Yaml();
+        String[] streams = { "abc\n%def\n---\nx\n", "key: \"abc\n%def\"\n---\nx\n" };
+        for (String data : streams) {
+            List<Object> expected = load(yaml.loadAll(data));
+            assertEquals(2, expected.size());
+            assertEquals(expected, load(yaml.loadAll(data, executor)));
+        }
+    }
+
+    public void testRootType() {
+        Yaml yaml = new Yaml(new Constructor(Bean.class));
+        String data = "a: 1\n---\na: 2\n";
+        List<Object> documents = load(yaml.loadAll(data, executor));
+        assertEquals(2, documents.size());
+        assertEquals(2, ((Bean) documents.get(1)).getA());
+        assertEquals(load(yaml.loadAll(data)).toString(), documents.toString());
+    }
+
+    public static class Bean {
+        private int a;
+
+        public int getA() {
+            return a;
+        }
+
+        public void setA(int a) {
+            this.a = a;
+        }
+
+        @Override
+        public String toString() {
+            return "Bean" + a;
+        }
+    }
+
+    public void testEmpty() {
+        Yaml yaml = new Yaml();
+        assertEquals(0, load(yaml.loadAll("", executor)).size());
+        assertEquals(0, load(yaml.loadAll("# only a comment\n", executor)).size());
+        assertEquals("[null]", load(yaml.loadAll("---\n", executor)).toString());
+    }
+
+    public void testErrorMarks() {
+        String data = "--- a\n--- b\n--- [c\n--- d\n";
+        Iterator<Object> documents = new Yaml().loadAll(data, executor).iterator();
+        assertEquals("a", documents.next());
+        assertEquals("b", documents.next());
+        try {
+            documents.next();
+            fail("The third document is not valid.");
+        } catch (MarkedYAMLException e) {
+            // the same mark as in the sequential mode
+            assertEquals(3, e.getProblemMark().getLine());
+            assertEquals(data.indexOf("--- d"), e.getProblemMark().getIndex());
+            assertTrue(e.getMessage(), e.getMessage().contains("'string'"));
+        }
+    }
+
+    public void testLookahead() {
+        final int[] submitted = new int[1];
+        Executor direct = new Executor() {
+            public void execute(Runnable command) {
+                submitted[0]++;
+                command.run();
+            }
+        };
+        ParallelComposer composer = new ParallelComposer("--- 1\n--- 2\n--- 3\n--- 4\n",
+                "'string'", new Resolver(), new LoaderOptions(), direct, 2);
+        // the tasks are only submitted when the documents are requested
+        assertEquals(0, submitted[0]);
+        Node node = composer.next();
+        assertEquals(0, node.getStartMark().getLine());
+        assertEquals(3, submitted[0]);
+        int count = 1;
+        while (composer.hasNext()) {
+            assertEquals(count, composer.next().getStartMark().getLine());
+            count++;
+        }
+        assertEquals(4, count);
+        assertEquals(4, submitted[0]);
+        try {
+            new ParallelComposer("", "'string'", new Resolver(), new LoaderOptions(), direct, 0);
+            fail("Lookahead must be positive.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Lookahead must be positive: 0", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.constructor;
+
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor.BindingPlan;
+import org.yaml.snakeyaml.constructor.Constructor.PropertyBinding;
+import org.yaml.snakeyaml.introspector.BeanAccess;
+import org.yaml.snakeyaml.introspector.MissingProperty;
+
+public class BindingPlanTest extends TestCase {
+    private static final String DATA = "items: [{name: a}, {name: b}]\n"
+            + "generic: [{name: c}]\nprices: {x: 1.5}\nratio: 0.5\n";
+
+    public void testRepeatedBeans() {
+        Yaml yaml = new Yaml(new Constructor(Bundle.class));
+        for (int i = 0; i < 3; i++) {
+            Bundle bundle = (Bundle) yaml.load(DATA);
+            // without the TypeDescription the items are maps
+            assertTrue(bundle.getItems().get(0) instanceof Map);
+            assertEquals("c", bundle.getGeneric().get(0).getName());
+            assertEquals(Float.valueOf(1.5f), bundle.getPrices().get("x"));
+            assertEquals(0.5f, bundle.getRatio());
+        }
+    }
+
+    public void testTypeDescriptionAddedLater() {
+        Constructor constructor = new Constructor(Bundle.class);
+        Yaml yaml = new Yaml(constructor);
+        assertTrue(((Bundle) yaml.load(DATA)).getItems().get(0) instanceof Map);
+        TypeDescription description = new TypeDescription(Bundle.class);
+        description.putListPropertyType("items", Item.class);
+        constructor.addTypeDescription(description);
+        Bundle bundle = (Bundle) yaml.load(DATA);
+        assertEquals("b", ((Item) bundle.getItems().get(1)).getName());
+    }
+
+    public void testTypeDescriptionModifiedLater() {
+        Constructor constructor = new Constructor(Bundle.class);
+        TypeDescription description = new TypeDescription(Bundle.class);
+        constructor.addTypeDescription(description);
+        Yaml yaml = new Yaml(constructor);
+        assertTrue(((Bundle) yaml.load(DATA)).getItems().get(0) instanceof Map);
+        description.putListPropertyType("items", Item.class);
+        Bundle bundle = (Bundle) yaml.load(DATA);
+        assertEquals("b", ((Item) bundle.getItems().get(1)).getName());
+    }
+
+    public void testBeanAccessChangedLater() {
+        Yaml yaml = new Yaml(new Constructor(Bundle.class));
+        assertFalse(((Bundle) yaml.load(DATA)).isFieldAccess());
+        yaml.setBeanAccess(BeanAccess.FIELD);
+        assertTrue(((Bundle) yaml.load(DATA)).isFieldAccess());
+    }
+
+    public void testMissingProperties() {
+        BindingPlan plan = new Constructor().getBindingPlan(Bundle.class);
+        // a new MissingProperty is returned for every lookup
+        PropertyBinding binding = plan.bind("color", new MissingProperty("color"));
+        assertSame(binding, plan.bind("color", new MissingProperty("color")));
+    }
+
+    public static class Bundle {
+        @SuppressWarnings("rawtypes")
+        private List items;
+        private List<Item> generic;
+        private Map<String, Float> prices;
+        private float ratio;
+        private transient boolean fieldAccess = true;
+
+        @SuppressWarnings("rawtypes")
+        public List getItems() {
+            return items;
+        }
+
+        @SuppressWarnings("rawtypes")
+        public void setItems(List items) {
+            this.items = items;
+            fieldAccess = false;
+        }
+
+        public List<Item> getGeneric() {
+            return generic;
+        }
+
+        public void setGeneric(List<Item> generic) {
+            this.generic = generic;
+        }
+
+        public Map<String, Float> getPrices() {
+            return prices;
+        }
+
+        public void setPrices(Map<String, Float> prices) {
+            this.prices = prices;
+        }
+
+        public float getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(float ratio) {
+            this.ratio = ratio;
+        }
+
+        public boolean isFieldAccess() {
+            return fieldAccess;
+        }
+    }
+
+    public static class Item {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
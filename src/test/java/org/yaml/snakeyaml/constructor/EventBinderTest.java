@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.constructor;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.introspector.PropertyUtils;
+import org.yaml.snakeyaml.parser.ParserException;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.scanner.ScannerException;
+
+public class EventBinderTest extends TestCase {
+    private static final String DATA = "name: top\nitems:\n- {name: a, size: 1}\n"
+            + "- {name: b, size: 2, children: [{name: c}]}\nlinked: [{name: d}]\n";
+
+    private Yaml createYaml(boolean directBinding) {
+        return createYaml(directBinding, false);
+    }
+
+    private Yaml createYaml(boolean directBinding, boolean skipMissingProperties) {
+        Constructor constructor = new Constructor(Node.class);
+        PropertyUtils propertyUtils = new PropertyUtils();
+        propertyUtils.setSkipMissingProperties(skipMissingProperties);
+        constructor.setPropertyUtils(propertyUtils);
+        TypeDescription description = new TypeDescription(Node.class);
+        description.putListPropertyType("items", Node.class);
+        constructor.addTypeDescription(description);
+        LoaderOptions options = new LoaderOptions();
+        options.setDirectBinding(directBinding);
+        return new Yaml(constructor, new Representer(), new DumperOptions(), options,
+                new Resolver());
+    }
+
+    public void testSameAsComposed() {
+        Node composed = (Node) createYaml(false).load(DATA);
+        Node bound = (Node) createYaml(true).load(DATA);
+        assertEquals(composed.toString(), bound.toString());
+        assertEquals("top[a:1[], b:2[c:0[]]]", bound.toString());
+        assertTrue(bound.getLinked() instanceof LinkedList);
+        assertEquals("d", bound.getLinked().get(0).getName());
+    }
+
+    public void testAliases() {
+        Node node = (Node) createYaml(true).load(
+                "name: top\nitems: [&x {name: a, children: &all [{name: b}]}, *x]\n"
+                        + "children: *all\n");
+        assertSame(node.getItems().get(0), node.getItems().get(1));
+        assertSame(node.getChildren(), node.getItems().get(0).getChildren());
+    }
+
+    public void testRecursive() {
+        Node node = (Node) createYaml(true).load("&top {name: top, items: [*top]}");
+        assertSame(node, node.getItems().get(0));
+    }
+
+    public void testMerge() {
+        Node node = (Node) createYaml(true).load(
+                "items:\n- &base {name: a, size: 1}\n- {name: b, <<: *base}\n");
+        assertEquals("b", node.getItems().get(1).getName());
+        assertEquals(1, node.getItems().get(1).getSize());
+    }
+
+    public void testRootType() {
+        Yaml yaml = createYaml(true);
+        Item item = yaml.loadAs("name: x", Item.class);
+        assertEquals("x", item.getName());
+        Object tagged = yaml.load("!!org.yaml.snakeyaml.constructor.EventBinderTest$Item "
+                + "{name: y}");
+        assertEquals("y", ((Item) tagged).getName());
+        Map<?, ?> map = yaml.loadAs("name: z", Map.class);
+        assertEquals("z", map.get("name"));
+    }
+
+    public void testInvalidProperty() {
+        try {
+            createYaml(true).load("name: top\nitems: [{name: a, color: red}]");
+            fail("Unknown property must be reported.");
+        } catch (ConstructorException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(
+                    "Cannot create property=color for JavaBean=a"));
+        }
+    }
+
+    public void testSkipMissingProperties() {
+        String document = "name: top\ncolor: red\nitems:\n- name: a\n  extra:\n  - [1, {x: 2}]\n"
+                + "  - y: \"z\"\n- {name: b, shape: {sides: 3}}\n";
+        Node composed = (Node) createYaml(false, true).load(document);
+        Node bound = (Node) createYaml(true, true).load(document);
+        assertEquals("top[a:0[], b:0[]]", composed.toString());
+        assertEquals(composed.toString(), bound.toString());
+        try {
+            createYaml(true, true).load("name: top\ncolor: [red, {x: 1]\n");
+            fail("The values of the missing properties must be checked.");
+        } catch (ParserException e) {
+            assertEquals(loadError(createYaml(false, true), "name: top\ncolor: [red, {x: 1]\n")
+                    .getMessage(), e.getMessage());
+        }
+    }
+
+    public void testAnchorInMissingProperty() {
+        String document = "unknown: &a hello\nname: *a\nshape: {items: &b [{name: c}]}\n"
+                + "children: *b\n";
+        Node composed = (Node) createYaml(false, true).load(document);
+        Node bound = (Node) createYaml(true, true).load(document);
+        assertEquals("hello", bound.getName());
+        // the anchored list is constructed without the property types
+        assertEquals("hello:0[{name=c}]", bound.toString());
+        assertEquals(composed.toString(), bound.toString());
+    }
+
+    public void testInvalidInput() {
+        String[] documents = { "name: x\nitems: [{name: a}, {size: 2}\n",
+                "items:\n- name: a\n  items:\n  - {name: b, children: [{name: c}\n",
+                "items:\n- name: \"a\n", "items:\n- name: a\n  items: [\u0001]\n" };
+        for (String document : documents) {
+            Exception expected = loadError(createYaml(false), document);
+            Exception actual = loadError(createYaml(true), document);
+            assertFalse(document, expected instanceof ConstructorException);
+            assertEquals(document, expected.getClass(), actual.getClass());
+            assertEquals(document, expected.getMessage(), actual.getMessage());
+        }
+        assertEquals(ParserException.class, loadError(createYaml(true), documents[0])
+                .getClass());
+        assertEquals(ScannerException.class, loadError(createYaml(true), documents[2])
+                .getClass());
+    }
+
+    private Exception loadError(Yaml yaml, String document) {
+        try {
+            yaml.load(document);
+        } catch (Exception e) {
+            return e;
+        }
+        fail("Invalid document: " + document);
+        return null;
+    }
+
+    public void testSingleDocument() {
+        try {
+            createYaml(true).load("name: a\n---\nname: b\n");
+            fail("Only a single document is expected.");
+        } catch (ComposerException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "expected a single document in the stream"));
+        }
+    }
+
+    public static class Item {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Node extends Item {
+        private int size;
+        private List<Node> items = new ArrayList<Node>();
+        private List<Node> children = new ArrayList<Node>();
+        private LinkedList<Node> linked;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public List<Node> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Node> items) {
+            this.items = items;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Node> children) {
+            this.children = children;
+        }
+
+        public LinkedList<Node> getLinked() {
+            return linked;
+        }
+
+        public void setLinked(LinkedList<Node> linked) {
+            this.linked = linked;
+        }
+
+        @Override
+        public String toString() {
+            return getName() + (items.isEmpty() ? ":" + size + children : items.toString());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.constructor;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class NumberParserTest extends TestCase {
+    private static final String[] SAMPLES = { "0", "-0", "+0", "00", "07", "08", "0_7", "0b",
+            "0b1", "0b102", "-0b1_0", "0x", "0xFF", "0x_a", "0xg", "0x-5", "0o", "0o17", "0o18",
+            "-0o1", "1", "12_3", "-1", "+", "-", "", "+-5", "--5", "1:20", "1:60", "1:5:30",
+            "190:20:30", "1:", "1::2", ":5", "-1:20", "0:30", "2147483647", "2147483648",
+            "-2147483648", "-2147483649", "9223372036854775807", "9223372036854775808",
+            "-9223372036854775808", "-9223372036854775809", "0xFFFFFFFF", "0x7FFFFFFFFFFFFFFF",
+            "0x8000000000000000", "99999999999:59:59", "1.5", "1.", ".5", "-.5", "+.5", ".",
+            "1e5", "1E+5", "1e", "1.5e-3", "1_000.0_1e10", ".inf", "-.Inf", "+.INF", ".nan",
+            "-.NaN", "NaN", "Infinity", "1:20.5", "-1:20.5", "0x1p3", "1.5d", " 1", "1 ", "a" };
+
+    public void testSamples() {
+        for (String value : SAMPLES) {
+            check(value);
+        }
+    }
+
+    public void testRandomValues() {
+        String alphabet = "0123456789-+_.:eExXbBoOfinaINF ";
+        Random random = new Random(2011);
+        for (int n = 0; n < 100000; n++) {
+            int length = random.nextInt(24);
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            check(builder.toString());
+        }
+    }
+
+    public void testNarrowestType() {
+        assertEquals(Integer.class, NumberParser.parseInteger("2147483647").getClass());
+        assertEquals(Long.class, NumberParser.parseInteger("2147483648").getClass());
+        assertNull(NumberParser.parseInteger("9223372036854775808"));
+        assertEquals(Long.valueOf(Long.MIN_VALUE),
+                NumberParser.parseInteger("-0x8000000000000000"));
+    }
+
+    private void check(String value) {
+        Number parsed = NumberParser.parseInteger(value);
+        if (parsed != null) {
+            assertEquals(value, referenceInt(value), parsed);
+        }
+        Double parsedFloat = NumberParser.parseFloat(value);
+        if (parsedFloat != null) {
+            assertEquals(value, referenceFloat(value), parsedFloat);
+        }
+    }
+
+    /**
+     * The general algorithm of ConstructYamlInt
+     */
+    private Object referenceInt(String source) {
+        try {
+            String value = source.replaceAll("_", "");
+            int sign = +1;
+            char first = value.charAt(0);
+            if (first == '-') {
+                sign = -1;
+                value = value.substring(1);
+            } else if (first == '+') {
+                value = value.substring(1);
+            }
+            int base = 10;
+            if ("0".equals(value)) {
+                return Integer.valueOf(0);
+            } else if (value.startsWith("0b")) {
+                value = value.substring(2);
+                base = 2;
+            } else if (value.startsWith("0x")) {
+                value = value.substring(2);
+                base = 16;
+            } else if (value.startsWith("0o")) {
+                value = value.substring(2);
+                base = 8;
+            } else if (value.startsWith("0")) {
+                value = value.substring(1);
+                base = 8;
+            } else if (value.indexOf(':') != -1) {
+                String[] digits = value.split(":");
+                int bes = 1;
+                int val = 0;
+                for (int i = 0, j = digits.length; i < j; i++) {
+                    val += Long.parseLong(digits[j - i - 1]) * bes;
+                    bes *= 60;
+                }
+                return createNumber(sign, String.valueOf(val), 10);
+            } else {
+                return createNumber(sign, value, 10);
+            }
+            return createNumber(sign, value, base);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private Number createNumber(int sign, String number, int radix) {
+        if (sign < 0) {
+            number = "-" + number;
+        }
+        try {
+            return Integer.valueOf(number, radix);
+        } catch (NumberFormatException e) {
+            try {
+                return Long.valueOf(number, radix);
+            } catch (NumberFormatException e1) {
+                return new BigInteger(number, radix);
+            }
+        }
+    }
+
+    /**
+     * The general algorithm of ConstructYamlFloat
+     */
+    private Object referenceFloat(String source) {
+        try {
+            String value = source.replaceAll("_", "");
+            int sign = +1;
+            char first = value.charAt(0);
+            if (first == '-') {
+                sign = -1;
+                value = value.substring(1);
+            } else if (first == '+') {
+                value = value.substring(1);
+            }
+            String valLower = value.toLowerCase();
+            if (".inf".equals(valLower)) {
+                return new Double(sign == -1 ? Double.NEGATIVE_INFINITY
+                        : Double.POSITIVE_INFINITY);
+            } else if (".nan".equals(valLower)) {
+                return new Double(Double.NaN);
+            } else if (value.indexOf(':') != -1) {
+                String[] digits = value.split(":");
+                int bes = 1;
+                double val = 0.0;
+                for (int i = 0, j = digits.length; i < j; i++) {
+                    val += Double.parseDouble(digits[j - i - 1]) * bes;
+                    bes *= 60;
+                }
+                return new Double(sign * val);
+            } else {
+                Double d = Double.valueOf(value);
+                return new Double(d.doubleValue() * sign);
+            }
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+}
@@ -34,4 +34,33 @@ public class MethodPropertyTest extends TestCase {
             }
         }
     }
+
+    public void testNonPublicClass() throws Exception {
+        MethodProperty count = null;
+        for (PropertyDescriptor property : Introspector.getBeanInfo(Counter.class)
+                .getPropertyDescriptors()) {
+            if (property.getName().equals("count")) {
+                count = new MethodProperty(property);
+            }
+        }
+        assertNotNull(count);
+        Counter counter = new Counter();
+        // the public accessors of a private class
+        count.set(counter, 5);
+        assertEquals(Integer.valueOf(5), count.get(counter));
+        assertTrue(count.isReadable());
+        assertTrue(count.isWritable());
+    }
+
+    private static class Counter {
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
 }
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.parser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+public class NonBlockingParserTest extends TestCase {
+    private static final String DATA = "%TAG !e! tag:example.com,2000:\n--- &id\n"
+            + "key: value\nlist:\n  - one\n  - !e!two 2\n  - [a, {b: c}, \"d\\te\"]\n"
+            + "literal: |\n  line 1\n  line 2\n"
+            + "? complex\n: 'quoted ''single'''\n"
+            + "utf: фыва\n"
+            + "alias: *id\n...\n--- second\n# comment\n";
+
+    public void testSmallChunks() throws Exception {
+        byte[] bytes = DATA.getBytes("UTF-8");
+        List<Event> expected = parse(bytes);
+        for (int size = 1; size < 20; size++) {
+            assertEquals("Chunk size " + size, expected, parseInChunks(bytes, size));
+        }
+        assertEquals(expected, parseInChunks(bytes, bytes.length));
+    }
+
+    public void testMarks() throws Exception {
+        byte[] bytes = DATA.getBytes("UTF-8");
+        List<Event> expected = parse(bytes);
+        List<Event> events = parseInChunks(bytes, 3);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStartMark().getIndex(), events.get(i).getStartMark()
+                    .getIndex());
+            assertEquals(expected.get(i).getEndMark().getLine(), events.get(i).getEndMark()
+                    .getLine());
+            assertEquals(expected.get(i).getEndMark().getColumn(), events.get(i).getEndMark()
+                    .getColumn());
+        }
+    }
+
+    public void testSpecificationExamples() throws Exception {
+        File[] files = new File("src/test/resources/specification").listFiles();
+        int count = 0;
+        for (File file : files) {
+            if (!file.isFile()) {
+                continue;
+            }
+            byte[] bytes = readFile(file);
+            List<Event> expected;
+            try {
+                expected = parse(bytes);
+            } catch (YAMLException e) {
+                // invalid documents are not interesting here
+                continue;
+            }
+            assertEquals(file.getName(), expected, parseInChunks(bytes, 5));
+            count++;
+        }
+        assertTrue(count > 10);
+    }
+
+    public void testEventsBeforeEndOfInput() {
+        NonBlockingParser parser = new NonBlockingParser();
+        assertTrue(parser.needsInput());
+        assertNull(parser.nextEvent());
+        parser.feed(ByteBuffer.wrap("- a\n- b".getBytes()));
+        assertFalse(parser.needsInput());
+        assertTrue(parser.nextEvent().is(Event.ID.StreamStart));
+        assertTrue(parser.nextEvent().is(Event.ID.DocumentStart));
+        assertTrue(parser.nextEvent().is(Event.ID.SequenceStart));
+        assertEquals("a", ((ScalarEvent) parser.nextEvent())
+                .getValue());
+        // 'b' may continue in the next chunk
+        assertNull(parser.nextEvent());
+        assertTrue(parser.needsInput());
+        parser.feed(ByteBuffer.wrap("cd\n".getBytes()));
+        // the next line may continue the scalar
+        assertNull(parser.nextEvent());
+        parser.feed(ByteBuffer.wrap("- e".getBytes()));
+        assertEquals("bcd", ((ScalarEvent) parser.nextEvent())
+                .getValue());
+        assertNull(parser.nextEvent());
+        parser.endOfInput();
+        assertEquals("e", ((ScalarEvent) parser.nextEvent())
+                .getValue());
+        assertTrue(parser.nextEvent().is(Event.ID.SequenceEnd));
+        assertTrue(parser.nextEvent().is(Event.ID.DocumentEnd));
+        assertFalse(parser.isDone());
+        assertTrue(parser.nextEvent().is(Event.ID.StreamEnd));
+        assertTrue(parser.isDone());
+        assertNull(parser.nextEvent());
+        assertFalse(parser.needsInput());
+    }
+
+    public void testLargeScalarsInSmallChunks() throws Exception {
+        int size = 4 * 1024 * 1024;
+        StringBuilder builder = new StringBuilder(size + 100);
+        builder.append("plain: ");
+        for (int i = 0; i < size / 2; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        builder.append("\nliteral: |\n");
+        for (int i = 0; i < size / 2; i += 64) {
+            builder.append("  0123456789012345678901234567890123456789012345678901234567890\n");
+        }
+        builder.append("end: x\n");
+        byte[] bytes = builder.toString().getBytes("UTF-8");
+        long start = System.currentTimeMillis();
+        List<Event> events = parseInChunks(bytes, 1024);
+        long time = System.currentTimeMillis() - start;
+        assertEquals(parse(bytes), events);
+        assertEquals(size / 2, ((ScalarEvent) events.get(4)).getValue().length());
+        // rescanning the scalar for every chunk takes minutes
+        assertTrue("Too slow: " + time + "ms", time < 10000);
+    }
+
+    public void testLargeEventReportedLater() {
+        NonBlockingParser parser = new NonBlockingParser();
+        StringBuilder builder = new StringBuilder("- ");
+        for (int i = 0; i < NonBlockingParser.RETRY_THRESHOLD * 2; i++) {
+            builder.append('a');
+        }
+        parser.feed(ByteBuffer.wrap(builder.toString().getBytes()));
+        while (parser.nextEvent() != null) {
+        }
+        // the scalar is complete but it is not scanned again for one byte
+        parser.feed(ByteBuffer.wrap("\n".getBytes()));
+        assertNull(parser.nextEvent());
+        assertTrue(parser.needsInput());
+        parser.endOfInput();
+        assertEquals(NonBlockingParser.RETRY_THRESHOLD * 2, ((ScalarEvent) parser.nextEvent())
+                .getValue().length());
+    }
+
+    public void testEmptyInput() {
+        NonBlockingParser parser = new NonBlockingParser();
+        parser.endOfInput();
+        assertTrue(parser.nextEvent().is(Event.ID.StreamStart));
+        assertTrue(parser.nextEvent().is(Event.ID.StreamEnd));
+        assertNull(parser.nextEvent());
+    }
+
+    public void testIncompleteInput() {
+        NonBlockingParser parser = new NonBlockingParser();
+        parser.feed(ByteBuffer.wrap("[a, b".getBytes()));
+        while (parser.nextEvent() != null) {
+        }
+        parser.endOfInput();
+        try {
+            while (parser.nextEvent() != null) {
+            }
+            fail("Unclosed sequence must be reported.");
+        } catch (YAMLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("expected ',' or ']'"));
+        }
+    }
+
+    public void testFeedAfterEnd() {
+        NonBlockingParser parser = new NonBlockingParser();
+        parser.endOfInput();
+        try {
+            parser.feed(ByteBuffer.wrap("a".getBytes()));
+            fail("Data after the end must not be accepted.");
+        } catch (IllegalStateException e) {
+            assertEquals("The end of input is already reached.", e.getMessage());
+        }
+    }
+
+    private List<Event> parse(byte[] bytes) throws IOException {
+        InputStream input = new java.io.ByteArrayInputStream(bytes);
+        Parser parser = new ParserImpl(new StreamReader(new UnicodeReader(input)));
+        List<Event> events = new ArrayList<Event>();
+        while (parser.peekEvent() != null) {
+            events.add(parser.getEvent());
+        }
+        return events;
+    }
+
+    private List<Event> parseInChunks(byte[] bytes, int size) {
+        NonBlockingParser parser = new NonBlockingParser();
+        List<Event> events = new ArrayList<Event>();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int i = 0; i < bytes.length; i += size) {
+            buffer.clear();
+            buffer.put(bytes, i, Math.min(size, bytes.length - i));
+            buffer.flip();
+            parser.feed(buffer);
+            assertFalse(buffer.hasRemaining());
+            Event event;
+            while ((event = parser.nextEvent()) != null) {
+                events.add(event);
+            }
+            assertTrue(parser.needsInput());
+        }
+        parser.endOfInput();
+        Event event;
+        while ((event = parser.nextEvent()) != null) {
+            events.add(event);
+        }
+        assertTrue(parser.isDone());
+        return events;
+    }
+
+    private byte[] readFile(File file) throws IOException {
+        FileInputStream input = new FileInputStream(file);
+        try {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < bytes.length) {
+                offset += input.read(bytes, offset, bytes.length - offset);
+            }
+            return bytes;
+        } finally {
+            input.close();
+        }
+    }
+}
@@ -91,4 +91,66 @@ public class ParserImplTest extends TestCase {
         }
         assertFalse("Must contain no more events: " + parser.getEvent(), parser.checkEvent(null));
     }
+
+    public void testSkipNode() {
+        String data = "a: [1, {b: c}]\nd:\n- e\n- f: g\n  h: [i]\nj: 'k'\nl: {m: n}\n";
+        ParserImpl parser = new ParserImpl(new StreamReader(data));
+        StringBuilder values = new StringBuilder();
+        while (parser.peekEvent() != null) {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.Scalar)) {
+                String value = ((ScalarEvent) event).getValue();
+                values.append(value).append(';');
+                if (!"l".equals(value)) {
+                    parser.skipNode();
+                }
+            }
+        }
+        assertEquals("a;d;j;l;m;", values.toString());
+    }
+
+    public void testSkipNodeAfterNode() {
+        ParserImpl parser = new ParserImpl(new StreamReader("[a]"));
+        parser.getEvent();
+        parser.getEvent();
+        parser.skipNode();
+        assertTrue(parser.checkEvent(Event.ID.DocumentEnd));
+        try {
+            parser.skipNode();
+            fail("There is no node.");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(
+                    "The next event does not start a node: "
+                            + "<org.yaml.snakeyaml.events.DocumentEndEvent"));
+        }
+    }
+
+    public void testDeepNesting() {
+        // more nested collections than the initial size of the state stack
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            data.append(i % 2 == 0 ? "[" : "{a: ");
+        }
+        data.append("x");
+        for (int i = 299; i >= 0; i--) {
+            data.append(i % 2 == 0 ? "]" : "}");
+        }
+        Parser parser = new ParserImpl(new StreamReader(data.toString()));
+        int sequences = 0;
+        int mappings = 0;
+        int scalars = 0;
+        while (parser.peekEvent() != null) {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.SequenceEnd)) {
+                sequences++;
+            } else if (event.is(Event.ID.MappingEnd)) {
+                mappings++;
+            } else if (event.is(Event.ID.Scalar)) {
+                scalars++;
+            }
+        }
+        assertEquals(150, sequences);
+        assertEquals(150, mappings);
+        assertEquals(151, scalars);
+    }
 }
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.query;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+import org.pyyaml.CanonicalParser;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.composer.ComposerException;
+import org.yaml.snakeyaml.composer.NodeStore;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+public class PathQueryTest extends TestCase {
+    private static final String POD = "apiVersion: v1\n" //
+            + "spec:\n" //
+            + "  template:\n" //
+            + "    metadata: {labels: {app: web, image: label}}\n" //
+            + "    spec:\n" //
+            + "      containers:\n" //
+            + "        - name: app\n" //
+            + "          image: nginx:1.19\n" //
+            + "          ports: [80, 443]\n" //
+            + "        - name: sidecar\n" //
+            + "          image: envoy\n" //
+            + "      volumes: []\n";
+
+    private List<Object> query(String yaml, String path) {
+        List<Object> result = new ArrayList<Object>();
+        for (Object value : new Yaml().query(new StringReader(yaml), path)) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    public void testKeysAndWildcard() {
+        assertEquals("[nginx:1.19, envoy]",
+                query(POD, "spec.template.spec.containers[*].image").toString());
+        assertEquals("[nginx:1.19, envoy]",
+                query(POD, "$.spec.template.spec.containers.*.image").toString());
+        assertEquals("[v1]", query(POD, "apiVersion").toString());
+        assertEquals("[]", query(POD, "spec.missing.image").toString());
+    }
+
+    public void testIndex() {
+        assertEquals("[sidecar]", query(POD, "spec.template.spec.containers[1].name")
+                .toString());
+        assertEquals("[443]", query(POD, "spec.template.spec.containers[0].ports[1]")
+                .toString());
+        assertEquals(Integer.valueOf(443),
+                query(POD, "spec.template.spec.containers[0].ports[1]").get(0));
+        assertEquals("[]", query(POD, "spec.template.spec.containers[2]").toString());
+    }
+
+    public void testRecursiveDescent() {
+        assertEquals("[label, nginx:1.19, envoy]", query(POD, "$..image").toString());
+        assertEquals("[app, sidecar]", query(POD, "..containers[*].name").toString());
+        // the ports of the first container are inside the matched node
+        assertEquals("[{name=app, image=nginx:1.19, ports=[80, 443]}]", query(POD, "..[0]")
+                .toString());
+    }
+
+    public void testRoot() {
+        assertEquals("[[1, 2], {a=b}]", query("--- [1, 2]\n--- {a: b}\n", "$").toString());
+        assertEquals("[[1, 2]]", query("[1, 2]", "").toString());
+        assertEquals("[2, c]", query("--- [1, 2]\n--- [b, c]\n", "[1]").toString());
+    }
+
+    public void testNestedMatchIsNotReported() {
+        assertEquals("[{a={a=1}}]", query("a: {a: {a: 1}}", "..a").toString());
+        assertEquals("[{x=1}, {y=2}]", query("- {x: 1}\n- {y: 2}", "[*]").toString());
+    }
+
+    public void testQuotedKey() {
+        assertEquals("[1]", query("{'a.b': 1, a: {b: 2}}", "['a.b']").toString());
+        assertEquals("[2]", query("{'a.b': 1, a: {b: 2}}", "a.b").toString());
+        assertEquals("[3]", query("x: {'[y]': 3}", "x[\"[y]\"]").toString());
+    }
+
+    public void testComplexKeysAreSkipped() {
+        String yaml = "? [a, b]\n: complex\n? {c: d}\n: mapping\nc: plain\n";
+        assertEquals("[plain]", query(yaml, "c").toString());
+        assertEquals("[complex, mapping, plain]", query(yaml, "*").toString());
+    }
+
+    public void testAliases() {
+        String yaml = "defaults: &d {size: 1}\nitems:\n- &x {name: x}\n- *x\n- *d\n";
+        // the anchor is defined in a matched node
+        assertEquals("[[{name=x}, {name=x}]]", query("items: [&x {name: x}, *x]", "items")
+                .toString());
+        // the anchor is defined in a skipped part of the document
+        try {
+            query(yaml, "items[2]");
+            fail("The anchor is not composed.");
+        } catch (ComposerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("found undefined alias d"));
+        }
+        // the anchors are not visible in the next document
+        try {
+            query("--- &a [1]\n--- *a\n", "$");
+            fail("The anchors must not be shared between the documents.");
+        } catch (ComposerException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("found undefined alias a"));
+        }
+    }
+
+    public void testSelect() {
+        Yaml yaml = new Yaml();
+        String[] paths = { "spec.template.spec.containers[*].image", "apiVersion", "$..image",
+                "..containers[*].name", "..[0]", "$", "..*", "spec.missing", "*.*.spec.volumes" };
+        Constructor constructor = new Constructor();
+        NodeStore store = yaml.composeStore(new StringReader(POD));
+        for (String path : paths) {
+            List<Object> selected = new ArrayList<Object>();
+            for (int node : PathQuery.compile(path).select(store)) {
+                selected.add(constructor.getData(store.toNode(node)));
+            }
+            assertEquals(path, query(POD, path), selected);
+        }
+        // the aliases are not followed
+        store = yaml.composeStore(new StringReader("a: &x {b: 1}\nc: *x\n"));
+        int[] selected = PathQuery.compile("..b").select(store);
+        assertEquals(1, selected.length);
+        assertEquals("1", store.getValue(selected[0]));
+    }
+
+    public void testNodes() {
+        Yaml yaml = new Yaml();
+        List<Node> nodes = new ArrayList<Node>();
+        for (Node node : yaml.queryNodes(new StringReader(POD), "..name")) {
+            nodes.add(node);
+        }
+        assertEquals(2, nodes.size());
+        ScalarNode node = (ScalarNode) nodes.get(1);
+        assertEquals("sidecar", node.getValue());
+        assertEquals(9, node.getStartMark().getLine());
+    }
+
+    public void testMatcher() {
+        PathMatcher matcher = PathQuery.compile("a[*]").matcher(
+                new ParserImpl(new StreamReader("a: [1, [2]]\nb: [3]")), new Resolver());
+        assertTrue(matcher.hasNext());
+        assertTrue(matcher.hasNext());
+        assertEquals("1", ((ScalarNode) matcher.next()).getValue());
+        assertEquals(1, ((SequenceNode) matcher.next()).getValue().size());
+        assertFalse(matcher.hasNext());
+        try {
+            matcher.next();
+            fail("No more nodes.");
+        } catch (NoSuchElementException e) {
+            assertEquals("No more matched nodes.", e.getMessage());
+        }
+    }
+
+    public void testMatcherWithOtherParser() {
+        // the skipped parts are dropped event by event
+        String data = "%YAML 1.1\n---\n!!map {\n"
+                + "  ? !!str \"a\" : !!seq [ !!int \"1\",\n"
+                + "    !!map { ? !!str \"c\" : !!int \"2\" } ],\n"
+                + "  ? !!str \"b\" : !!seq [ !!int \"3\" ]\n}\n";
+        PathMatcher matcher = PathQuery.compile("b[*]").matcher(new CanonicalParser(data),
+                new Resolver());
+        assertEquals("3", ((ScalarNode) matcher.next()).getValue());
+        assertFalse(matcher.hasNext());
+    }
+
+    public void testInvalidPath() {
+        checkInvalid("a.", "Invalid path 'a.' at position 2: key is expected");
+        checkInvalid("a[", "Invalid path 'a[' at position 2: index, '*' or quoted key is expected");
+        checkInvalid("a[1", "Invalid path 'a[1' at position 3: ']' is expected");
+        checkInvalid("a['b]", "Invalid path 'a['b]' at position 2: the quoted key is not closed");
+        checkInvalid("$x", "Invalid path '$x' at position 1: '.' or '[' is expected");
+        checkInvalid("a.[0]", "Invalid path 'a.[0]' at position 2: '[' is not expected after '.'");
+        StringBuilder path = new StringBuilder("$");
+        for (int i = 0; i < 64; i++) {
+            path.append("[0]");
+        }
+        checkInvalid(path.toString(), "Path must not contain more than 63 steps: " + path);
+    }
+
+    private void checkInvalid(String path, String message) {
+        try {
+            PathQuery.compile(path);
+            fail("Invalid path: " + path);
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    public void testToString() {
+        assertEquals("$..image", PathQuery.compile("$..image").toString());
+    }
+}
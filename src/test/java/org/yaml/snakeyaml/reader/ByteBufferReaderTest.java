@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+public class ByteBufferReaderTest extends TestCase {
+
+    private String read(ByteBufferReader reader, int bufferSize) throws IOException {
+        StreamReader stream = new StreamReader(reader, bufferSize);
+        StringBuilder result = new StringBuilder();
+        while (stream.peek() != '\0') {
+            result.append(stream.peek());
+            stream.forward();
+        }
+        reader.close();
+        return result.toString();
+    }
+
+    private File createFile(byte[] content) throws IOException {
+        File file = File.createTempFile("snakeyaml", ".yaml");
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream(file);
+        output.write(content);
+        output.close();
+        return file;
+    }
+
+    public void testNoBom() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap("test".getBytes("UTF-8"));
+        ByteBufferReader reader = new ByteBufferReader(bytes);
+        assertEquals("test", read(reader, 1024));
+        assertEquals("UTF-8", reader.getEncoding());
+        // the position of the original buffer is kept
+        assertEquals(0, bytes.position());
+    }
+
+    public void testUtf8Bom() throws IOException {
+        MappedFileReader reader = new MappedFileReader(new File(
+                "src/test/resources/reader/utf-8.txt"));
+        assertEquals("test", read(reader, 1024));
+        assertEquals("UTF-8", reader.getEncoding());
+    }
+
+    public void testUnicodeLeBom() throws IOException {
+        MappedFileReader reader = new MappedFileReader(new File(
+                "src/test/resources/reader/unicode-16le.txt"));
+        StreamReader stream = new StreamReader(reader);
+        assertEquals('t', stream.peek());
+        assertEquals(Charset.forName("UTF-16LE"), stream.getEncoding());
+        reader.close();
+    }
+
+    public void testUnicodeBeBom() throws IOException {
+        MappedFileReader reader = new MappedFileReader(new File(
+                "src/test/resources/reader/unicode-16be.txt"));
+        assertEquals("test", read(reader, 1024));
+        assertEquals("UTF-16BE", reader.getEncoding());
+    }
+
+    public void testEmpty() throws IOException {
+        assertEquals("", read(new ByteBufferReader(ByteBuffer.allocate(0)), 1024));
+        assertEquals("", read(new MappedFileReader(createFile(new byte[0])), 1024));
+    }
+
+    /**
+     * multi-byte characters are split between the chunks
+     */
+    public void testSmallChunks() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            builder.append((char) (0x0410 + i % 32));
+            builder.append((char) ('a' + i % 26));
+            builder.append((char) (0x4E00 + i));
+        }
+        String content = builder.toString();
+        File file = createFile(content.getBytes("UTF-8"));
+        for (int chunk = 16; chunk < 40; chunk++) {
+            assertEquals(content, read(new MappedFileReader(file, chunk), 7));
+        }
+    }
+
+    public void testMalformed() throws IOException {
+        byte[] bytes = new byte[] { 'a', ':', ' ', (byte) 0xC3 };
+        try {
+            new Yaml().load(ByteBuffer.wrap(bytes));
+            fail("Incomplete character must be detected");
+        } catch (YAMLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("MalformedInputException"));
+        }
+    }
+
+    public void testInterruptedCharacter() throws IOException {
+        byte[] bytes = new byte[] { 'a', ':', ' ', (byte) 0xD0, 'b', '\n' };
+        try {
+            read(new ByteBufferReader(ByteBuffer.wrap(bytes)), 1024);
+            fail("Interrupted character must be detected");
+        } catch (YAMLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("MalformedInputException"));
+        }
+    }
+
+    public void testDirectBuffer() throws IOException {
+        String content = "key: " + (char) 0x0416 + (char) 0x4E00 + " value\n";
+        byte[] bytes = content.getBytes("UTF-8");
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.flip();
+        assertEquals(content, read(new ByteBufferReader(direct), 3));
+        assertEquals(content, read(new ByteBufferReader(ByteBuffer.wrap(bytes)), 3));
+    }
+
+    public void testUtf16() throws IOException {
+        String content = "key: " + (char) 0x0416 + " value";
+        byte[] bytes = content.getBytes("UTF-16");
+        ByteBufferReader reader = new ByteBufferReader(ByteBuffer.wrap(bytes));
+        assertEquals(content, read(reader, 2));
+        assertEquals("UTF-16BE", reader.getEncoding());
+    }
+
+    public void testInvalidChunkSize() throws IOException {
+        try {
+            new MappedFileReader(new File("src/test/resources/reader/utf-8.txt"), 8);
+            fail("Chunk size is too small");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Chunk size must be at least 16: 8", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testLoadFile() throws IOException {
+        Yaml yaml = new Yaml();
+        Map<String, Object> map = (Map<String, Object>) yaml.load(new File(
+                "src/test/resources/specification/example2_2.yaml"));
+        assertEquals(65, map.get("hr"));
+        List<Object> list = (List<Object>) yaml.load(new File(
+                "src/test/resources/reader/large.yaml"));
+        assertEquals(37, list.size());
+    }
+
+    public void testLoadMissingFile() {
+        try {
+            new Yaml().load(new File("src/test/resources/reader/missing.yaml"));
+            fail("File must not be found");
+        } catch (YAMLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("missing.yaml"));
+        }
+    }
+
+    public void testLoadAll() throws IOException {
+        Yaml yaml = new Yaml();
+        List<Object> documents = new ArrayList<Object>();
+        for (Object document : yaml.loadAll(ByteBuffer.wrap("--- 1\n--- 2\n--- 3\n"
+                .getBytes("UTF-8")))) {
+            documents.add(document);
+        }
+        assertEquals(3, documents.size());
+        assertEquals(3, documents.get(2));
+        File file = createFile("--- a\n--- b\n".getBytes("UTF-8"));
+        documents.clear();
+        for (Object document : yaml.loadAll(file)) {
+            documents.add(document);
+        }
+        assertEquals(2, documents.size());
+        assertEquals("b", documents.get(1));
+    }
+}
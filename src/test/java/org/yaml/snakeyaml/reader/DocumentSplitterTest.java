@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.reader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class DocumentSplitterTest extends TestCase {
+
+    private List<String> split(String data) {
+        DocumentSplitter splitter = new DocumentSplitter(data);
+        List<String> parts = new ArrayList<String>();
+        for (int i = 0; i < splitter.size(); i++) {
+            parts.add(splitter.getPart(i));
+        }
+        return parts;
+    }
+
+    public void testSplit() {
+        assertEquals("[a: 1\n, --- b\n...\n, ---\n]", split("a: 1\n--- b\n...\n---\n")
+                .toString());
+        assertEquals("[--- a\n, ---\tb\n, ---]", split("--- a\n---\tb\n---").toString());
+        // the first part is always present
+        assertEquals(1, split("").size());
+    }
+
+    public void testMarkerMustStartLine() {
+        assertEquals("[- ---\n- '\n  ---x'\n]", split("- ---\n- '\n  ---x'\n").toString());
+        assertEquals("[a\n----\n]", split("a\n----\n").toString());
+    }
+
+    public void testDirectives() {
+        String data = "--- a\n...\n# comment\n%YAML 1.1\n\n%TAG !e! tag:e,2011:\n--- !e!b c\n";
+        List<String> parts = split(data);
+        assertEquals(2, parts.size());
+        assertEquals("--- a\n...\n# comment\n", parts.get(0));
+        assertEquals("%YAML 1.1\n\n%TAG !e! tag:e,2011:\n--- !e!b c\n", parts.get(1));
+        DocumentSplitter splitter = new DocumentSplitter(data);
+        assertEquals(3, splitter.getLine(1));
+        assertEquals(data.indexOf('%'), splitter.getIndex(1));
+    }
+
+    public void testPercentInContent() {
+        // '%' starts a line of a scalar, not a directive
+        assertEquals("[abc\n%def\n, ---\nx\n]", split("abc\n%def\n---\nx\n").toString());
+        assertEquals("[key: \"abc\n%def\"\n, ---\nx\n]",
+                split("key: \"abc\n%def\"\n---\nx\n").toString());
+        assertEquals("[--- a\n%b\n, --- c\n]", split("--- a\n%b\n--- c\n").toString());
+    }
+
+    public void testLineBreaks() {
+        DocumentSplitter splitter = new DocumentSplitter("a\r\nb\r--- c\u2028--- d");
+        assertEquals(3, splitter.size());
+        assertEquals("a\r\nb\r", splitter.getPart(0));
+        assertEquals(2, splitter.getLine(1));
+        assertEquals(5, splitter.getIndex(1));
+        assertEquals("--- c\u2028", splitter.getPart(1));
+        assertEquals(3, splitter.getLine(2));
+        assertEquals(11, splitter.getIndex(2));
+    }
+}
@@ -18,11 +18,14 @@ package org.yaml.snakeyaml.reader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 
 import junit.framework.TestCase;
 
+import org.yaml.snakeyaml.Util;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.Mark;
 
 public class IoReaderTest extends TestCase {
 
@@ -46,4 +49,64 @@ public class IoReaderTest extends TestCase {
         reader.close();
         assertEquals(37, list.size());
     }
+
+    /**
+     * a tiny window must give the same result as the default one
+     */
+    public void testSmallBuffer() throws IOException {
+        Reader reader = new FileReader("src/test/resources/reader/large.yaml");
+        StreamReader small = new StreamReader(reader, 7);
+        StringBuilder content = new StringBuilder();
+        while (small.peek() != '\0') {
+            content.append(small.peek());
+            small.forward();
+        }
+        reader.close();
+        assertEquals(Util.getLocalResource("reader/large.yaml"), content.toString());
+    }
+
+    /**
+     * the window must grow to keep a token which is longer then the buffer
+     */
+    public void testLongToken() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append((char) ('a' + (i % 26)));
+        }
+        String scalar = builder.toString();
+        StreamReader reader = new StreamReader(new StringReader("key: " + scalar + "\n"), 16);
+        reader.forward(5);
+        assertEquals('\n', reader.peek(scalar.length()));
+        assertEquals(scalar, reader.prefixForward(scalar.length()));
+        assertEquals(10005, reader.getIndex());
+        reader.forward();
+        assertEquals(1, reader.getLine());
+        assertEquals(0, reader.getColumn());
+        assertEquals('\0', reader.peek());
+        assertEquals('\0', reader.peek(5));
+    }
+
+    public void testMarkAfterRefill() {
+        StreamReader reader = new StreamReader(new StringReader("first line\nsecond line"), 4);
+        reader.forward(3);
+        Mark mark = reader.getMark();
+        reader.forward(14);
+        Mark next = reader.getMark();
+        assertEquals(1, next.getLine());
+        assertEquals(6, next.getColumn());
+        // the first mark is not affected by the refilled window
+        assertEquals(0, mark.getLine());
+        assertEquals(3, mark.getColumn());
+        assertTrue(mark.get_snippet(), mark.get_snippet().indexOf("^") > 0);
+        assertTrue(next.get_snippet(), next.get_snippet().contains("line"));
+    }
+
+    public void testInvalidBufferSize() {
+        try {
+            new StreamReader(new StringReader("a"), 0);
+            fail("Buffer size must be positive");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Buffer size must be positive: 0", e.getMessage());
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
 
 import junit.framework.TestCase;
 
@@ -113,4 +114,46 @@ public class ReaderBomTest extends TestCase {
         assertEquals(Charset.forName("UTF-16BE"), reader.getEncoding());
         input.close();
     }
+
+    public void testSlowStream() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("key: \u00e9\u20ac ").append(i).append('\n');
+        }
+        // one byte at a time, nothing is available in advance
+        InputStream input = new ByteArrayInputStream(text.toString().getBytes("UTF-8")) {
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+
+            public synchronized int available() {
+                return 0;
+            }
+        };
+        Reader reader = new UnicodeReader(input);
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[100];
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+            assertTrue(count > 0);
+            result.append(buffer, 0, count);
+        }
+        assertEquals(text.toString(), result.toString());
+        assertEquals(Charset.forName("UTF-8"), Charset.forName(((UnicodeReader) reader)
+                .getEncoding()));
+    }
+
+    public void testTruncatedCharacter() throws IOException {
+        byte[] data = { 'a', (byte) 0xE2, (byte) 0x82 };
+        Reader reader = new UnicodeReader(new ByteArrayInputStream(data));
+        char[] buffer = new char[10];
+        try {
+            while (reader.read(buffer, 0, buffer.length) != -1) {
+                // read until the end
+            }
+            fail("The incomplete character must be reported.");
+        } catch (MalformedInputException e) {
+            assertEquals(2, e.getInputLength());
+        }
+    }
 }
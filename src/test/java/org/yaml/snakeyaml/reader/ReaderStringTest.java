@@ -15,10 +15,13 @@
  */
 package org.yaml.snakeyaml.reader;
 
+import java.io.StringReader;
 import java.util.regex.Matcher;
 
 import junit.framework.TestCase;
 
+import org.yaml.snakeyaml.scanner.Constant;
+
 public class ReaderStringTest extends TestCase {
 
     public void testCheckPrintable() {
@@ -72,6 +75,18 @@ public class ReaderStringTest extends TestCase {
                 charsArrayResult = false;
             }
             assertEquals("Failed for #" + i, regularExpressionResult, charsArrayResult);
+            assertEquals("Failed for #" + i, regularExpressionResult,
+                    StreamReader.isPrintable("ab" + str + "cd"));
+        }
+    }
+
+    public void testNonPrintablePosition() {
+        try {
+            new StreamReader("key: value\n\u0001");
+            fail("Non printable Unicode characters must not be accepted.");
+        } catch (ReaderException e) {
+            assertEquals(11, e.getPosition());
+            assertEquals(1, e.getCharacter());
         }
     }
 
@@ -104,4 +119,24 @@ public class ReaderStringTest extends TestCase {
         assertEquals('t', reader.peek(2));
     }
 
+    public void testFind() {
+        StreamReader reader = new StreamReader("key: value\nnext");
+        assertEquals(3, reader.find(Constant.PLAIN_BLOCK_END, 0));
+        assertEquals(4, reader.find(Constant.NULL_BL_T_LINEBR, 0));
+        assertEquals(10, reader.find(Constant.NULL_BL_T_LINEBR, 5));
+        reader.forward(11);
+        // the end of the stream
+        assertEquals(4, reader.find(Constant.NULL_BL_T_LINEBR, 0));
+    }
+
+    public void testFindBeyondWindow() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            builder.append('a');
+        }
+        builder.append(' ');
+        StreamReader reader = new StreamReader(new StringReader(builder.toString()));
+        assertEquals(5000, reader.find(Constant.NULL_BL_T_LINEBR, 0));
+        assertEquals(' ', reader.peek(5000));
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+
+public class CoreSchemaResolverTest extends TestCase {
+
+    private Yaml createYaml() {
+        return new Yaml(new Constructor(), new Representer(), new DumperOptions(),
+                new LoaderOptions(), new CoreSchemaResolver());
+    }
+
+    public void testResolve() {
+        Resolver resolver = new CoreSchemaResolver();
+        assertEquals(Tag.BOOL, resolver.resolve(NodeId.scalar, "True", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "yes", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "off", true));
+        assertEquals(Tag.INT, resolver.resolve(NodeId.scalar, "-17", true));
+        assertEquals(Tag.INT, resolver.resolve(NodeId.scalar, "0o17", true));
+        assertEquals(Tag.INT, resolver.resolve(NodeId.scalar, "0x1F", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "012", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "1_000", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "190:20:30", true));
+        assertEquals(Tag.FLOAT, resolver.resolve(NodeId.scalar, "1.5e-3", true));
+        assertEquals(Tag.FLOAT, resolver.resolve(NodeId.scalar, "-.inf", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "2001-12-14", true));
+        assertEquals(Tag.NULL, resolver.resolve(NodeId.scalar, "~", true));
+        assertEquals(Tag.NULL, resolver.resolve(NodeId.scalar, "", true));
+        assertEquals(Tag.MERGE, resolver.resolve(NodeId.scalar, "<<", true));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testLoad() {
+        Map<String, Object> map = (Map<String, Object>) createYaml().load(
+                "a: yes\nb: 0o17\nc: 012\nd: 1.5\ne: true\nf: 2001-12-14\ng: null\n");
+        assertEquals("yes", map.get("a"));
+        assertEquals(Integer.valueOf(15), map.get("b"));
+        assertEquals("012", map.get("c"));
+        assertEquals(Double.valueOf(1.5), map.get("d"));
+        assertEquals(Boolean.TRUE, map.get("e"));
+        assertEquals("2001-12-14", map.get("f"));
+        assertTrue(map.containsKey("g"));
+        assertNull(map.get("g"));
+    }
+
+    public void testDumpWithoutQuotes() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("answer", "no");
+        map.put("zip", "01234");
+        map.put("size", "1_000");
+        map.put("flag", "true");
+        map.put("count", 7);
+        String output = createYaml().dump(map);
+        assertEquals("{answer: no, zip: 01234, size: 1_000, flag: 'true', count: 7}\n", output);
+        assertEquals(map, createYaml().load(output));
+    }
+}
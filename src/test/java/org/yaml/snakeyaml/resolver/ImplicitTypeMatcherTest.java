@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+
+public class ImplicitTypeMatcherTest extends TestCase {
+    private static final Pattern[] PATTERNS = { Resolver.BOOL, Resolver.FLOAT, Resolver.INT,
+            Resolver.MERGE, Resolver.NULL, Resolver.EMPTY, Resolver.TIMESTAMP, Resolver.VALUE,
+            Resolver.YAML, CoreSchemaResolver.CORE_BOOL, CoreSchemaResolver.CORE_FLOAT,
+            CoreSchemaResolver.CORE_INT, CoreSchemaResolver.CORE_NULL,
+            JsonSchemaResolver.JSON_BOOL, JsonSchemaResolver.JSON_FLOAT,
+            JsonSchemaResolver.JSON_INT, JsonSchemaResolver.JSON_NULL };
+
+    private static final String[] SAMPLES = { "", " ", "~", "null", "Null", "NULL", "nULL", "yes",
+            "Yes", "YES", "yEs", "no", "On", "OFF", "true", "False", "TRUE ", "y", "n", "<<", "<",
+            "=", "!", "&", "*", "**", "0", "-0", "+0", "00", "07", "08", "0_7", "0b", "0b1",
+            "0b102", "-0b1_0", "0x", "0xFF", "0x_a", "0xg", "0o", "0o17", "0o18", "-0o1", "0x1",
+            "01.5", "0.5", "1", "12_3", "-1", "+", "-", "1:20", "1:60", "1:5:30",
+            "190:20:30", "1:", "1::2", "0:30", "1:2.", "1:2.5", "-1:20.5_", "_1:20.5", "1.", ".5",
+            ".", "._", "-.5", "1e5", "1E+5", "1e", "1e+", "1.5e-3", "1_000.0_1e10", "_", "-_",
+            "1.2.3", ".inf", "-.Inf", "+.INF", ".iNF", ".nan", ".NaN", "-.nan", "NaN",
+            "2001-12-14", "2001-12-1", "2001-1-1t1:02:03", "2001-12-14t21:59:43.10-05:00",
+            "2001-12-14 21:59:43.10 -5", "2001-12-15 2:59:43.10", "2001-12-14 21:59:43.10 ",
+            "2001-12-14 21:59:43.10 Z", "2001-12-14T21:59:43Z", "2001-12-14T21:59:43ZZ",
+            "2001-12-14 \t 21:59:43.", "2001-12-14T21:59:43+5:0", "2001-12-14T21:59:43+05:00:",
+            "2001-123-1T1:00:00", "2001-12-14T", "20011-12-14" };
+
+    public void testSamples() {
+        for (String value : SAMPLES) {
+            check(value);
+        }
+    }
+
+    /**
+     * The values are built from the characters which are meaningful for the
+     * standard patterns
+     */
+    public void testRandomValues() {
+        String alphabet = "0123456789-+_.:eExXbBoZTt \tinfaNIFlu";
+        Random random = new Random(2008);
+        for (int n = 0; n < 200000; n++) {
+            int length = random.nextInt(12);
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            check(builder.toString());
+        }
+    }
+
+    public void testRandomTimestamps() {
+        String template = "2001-12-14T21:59:43.10-05:00";
+        String alphabet = "0123456789-+:. \tTZ";
+        Random random = new Random(2010);
+        for (int n = 0; n < 100000; n++) {
+            StringBuilder builder = new StringBuilder(template);
+            int changes = 1 + random.nextInt(3);
+            for (int i = 0; i < changes && builder.length() > 0; i++) {
+                int position = random.nextInt(builder.length());
+                switch (random.nextInt(3)) {
+                case 0:
+                    builder.deleteCharAt(position);
+                    break;
+                case 1:
+                    builder.insert(position, alphabet.charAt(random.nextInt(alphabet.length())));
+                    break;
+                default:
+                    builder.setCharAt(position,
+                            alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            check(builder.toString());
+        }
+    }
+
+    public void testCustomPatterns() {
+        Resolver resolver = new Resolver();
+        Tag custom = new Tag("tag:example.com,2011:custom");
+        resolver.addImplicitResolver(custom, Pattern.compile("-x\\d+"), "-");
+        assertEquals(Tag.INT, resolver.resolve(NodeId.scalar, "-42", true));
+        assertEquals(custom, resolver.resolve(NodeId.scalar, "-x42", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "-x", true));
+        assertEquals(Tag.BOOL, resolver.resolve(NodeId.scalar, "yes", true));
+    }
+
+    private void check(String value) {
+        for (Pattern pattern : PATTERNS) {
+            int kind = ImplicitTypeMatcher.kindOf(pattern);
+            assertFalse(kind == ImplicitTypeMatcher.CUSTOM);
+            assertEquals(pattern + " for '" + value + "'", pattern.matcher(value).matches(),
+                    ImplicitTypeMatcher.matches(kind, value));
+        }
+    }
+}
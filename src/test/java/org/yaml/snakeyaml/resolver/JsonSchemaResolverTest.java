@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.resolver;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+
+public class JsonSchemaResolverTest extends TestCase {
+
+    public void testResolve() {
+        Resolver resolver = new JsonSchemaResolver();
+        assertEquals(Tag.BOOL, resolver.resolve(NodeId.scalar, "false", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "False", true));
+        assertEquals(Tag.NULL, resolver.resolve(NodeId.scalar, "null", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "~", true));
+        assertEquals(Tag.INT, resolver.resolve(NodeId.scalar, "-0", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "+1", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "0x1F", true));
+        assertEquals(Tag.FLOAT, resolver.resolve(NodeId.scalar, "-1.5E+10", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, ".5", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, ".inf", true));
+        assertEquals(Tag.STR, resolver.resolve(NodeId.scalar, "<<", true));
+        assertEquals(Tag.NULL, resolver.resolve(NodeId.scalar, "", true));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testLoad() {
+        Yaml yaml = new Yaml(new Constructor(), new Representer(), new DumperOptions(),
+                new LoaderOptions(), new JsonSchemaResolver());
+        List<Object> list = (List<Object>) yaml.load("[1, -2.5, true, null, yes, ~, 0x10]");
+        assertEquals(Integer.valueOf(1), list.get(0));
+        assertEquals(Double.valueOf(-2.5), list.get(1));
+        assertEquals(Boolean.TRUE, list.get(2));
+        assertNull(list.get(3));
+        assertEquals("yes", list.get(4));
+        assertEquals("~", list.get(5));
+        assertEquals("0x10", list.get(6));
+    }
+}
@@ -28,6 +28,7 @@ import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.AbstractConstruct;
 import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.events.ImplicitTuple;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.ScalarNode;
 import org.yaml.snakeyaml.nodes.Tag;
@@ -36,6 +37,15 @@ import org.yaml.snakeyaml.representer.Representer;
 
 public class ResolverTest extends TestCase {
 
+    public void testResolveImplicit() {
+        Resolver resolver = new Resolver();
+        assertSame(ImplicitTuple.BOTH, resolver.resolveImplicit(Tag.STR, "text"));
+        assertSame(ImplicitTuple.NON_PLAIN, resolver.resolveImplicit(Tag.STR, "123"));
+        assertSame(ImplicitTuple.PLAIN, resolver.resolveImplicit(Tag.INT, "123"));
+        assertSame(ImplicitTuple.NONE, resolver.resolveImplicit(Tag.INT, "text"));
+        assertSame(ImplicitTuple.NONE, resolver.resolveImplicit(new Tag("!foo"), "text"));
+    }
+
     @SuppressWarnings("unchecked")
     public void testAddImplicitResolver() {
         Yaml yaml = new Yaml(new MyConstructor(), new MyRepresenter());
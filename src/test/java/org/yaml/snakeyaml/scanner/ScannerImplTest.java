@@ -54,6 +54,42 @@ public class ScannerImplTest extends TestCase {
                 scanner.checkToken(new Token.ID[0]));
     }
 
+    public void testSkipValues() {
+        ScannerImpl scanner = new ScannerImpl(new StreamReader("a: [x,\n 'y', [z, \"w\"]]\nb: c"));
+        StringBuilder values = new StringBuilder();
+        while (scanner.checkToken()) {
+            if (scanner.checkToken(Token.ID.FlowSequenceStart) && values.length() == 2) {
+                // the block mapping and the flow sequence
+                scanner.skipValues(2, -1);
+            }
+            Token token = scanner.getToken();
+            if (token instanceof ScalarToken) {
+                values.append(((ScalarToken) token).getValue()).append(';');
+            }
+        }
+        // the values after the sequence are kept
+        assertEquals("a;;;;;b;c;", values.toString());
+    }
+
+    public void testSkipValuesScannedAhead() {
+        ScannerImpl scanner = new ScannerImpl(new StreamReader("[[x], y]"));
+        StringBuilder values = new StringBuilder();
+        scanner.getToken();
+        scanner.getToken();
+        while (scanner.checkToken()) {
+            if (scanner.checkToken(Token.ID.FlowSequenceStart)) {
+                // the inner sequence is already scanned to find out if it is
+                // a simple key
+                scanner.skipValues(2, -1);
+            }
+            Token token = scanner.getToken();
+            if (token instanceof ScalarToken) {
+                values.append(((ScalarToken) token).getValue()).append(';');
+            }
+        }
+        assertEquals("x;y;", values.toString());
+    }
+
     public void testWrongTab() {
         Yaml yaml = new Yaml();
         try {
@@ -23,4 +23,18 @@ public class SimpleKeyTest extends TestCase {
         SimpleKey key = new SimpleKey(1, false, 5, 3, 2, null);
         assertTrue(key.toString().contains("SimpleKey"));
     }
+
+    public void testReuse() {
+        SimpleKey key = new SimpleKey();
+        assertTrue(key.isEmpty());
+        key.set(0, true, 5, 3, 2, null);
+        assertFalse(key.isEmpty());
+        SimpleKey copy = new SimpleKey();
+        copy.copyFrom(key);
+        key.clear();
+        assertTrue(key.isEmpty());
+        assertFalse(copy.isEmpty());
+        assertTrue(copy.isRequired());
+        assertEquals(2, copy.getColumn());
+    }
 }
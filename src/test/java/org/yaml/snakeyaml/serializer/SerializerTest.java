@@ -18,12 +18,16 @@ package org.yaml.snakeyaml.serializer;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.resolver.Resolver;
 
@@ -99,4 +103,21 @@ public class SerializerTest extends TestCase {
         String anchor = format.format(3L);
         assertEquals("003", anchor);
     }
+
+    public void testRepeatedScalars() throws IOException {
+        DumperOptions config = new DumperOptions();
+        StringWriter writer = new StringWriter();
+        serializer = new Serializer(new Emitter(writer, config), new Resolver(), config, null);
+        List<Node> items = new ArrayList<Node>();
+        // the cached flags depend on the tag
+        items.add(new ScalarNode(Tag.STR, "1", null, null, null));
+        items.add(new ScalarNode(Tag.INT, "1", null, null, null));
+        items.add(new ScalarNode(Tag.STR, "1", null, null, null));
+        items.add(new ScalarNode(Tag.STR, "a", null, null, null));
+        items.add(new ScalarNode(Tag.STR, "a", null, null, null));
+        serializer.open();
+        serializer.serialize(new SequenceNode(Tag.SEQ, items, Boolean.TRUE));
+        serializer.close();
+        assertEquals("['1', 1, '1', a, a]\n", writer.toString());
+    }
 }
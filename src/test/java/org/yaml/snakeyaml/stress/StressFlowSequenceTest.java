@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.stress;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.scanner.Scanner;
+import org.yaml.snakeyaml.scanner.ScannerImpl;
+
+/**
+ * Wide flow sequences keep many tokens in the queue of the scanner because
+ * '[' may be a simple key until the end of the line.
+ */
+public class StressFlowSequenceTest extends TestCase {
+    String doc;
+
+    public static void main(String args[]) {
+        junit.textui.TestRunner.run(suite());
+    }
+
+    public static Test suite() {
+        return new TestSuite(StressFlowSequenceTest.class);
+    }
+
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int line = 0; line < 500; line++) {
+            builder.append("- [");
+            for (int i = 0; i < 500; i++) {
+                builder.append("a,");
+            }
+            builder.append("end]\n");
+        }
+        doc = builder.toString();
+    }
+
+    public void testPerformance() {
+        Yaml yaml = new Yaml();
+        int count = 0;
+        Iterator<Event> events = yaml.parse(new StringReader(doc)).iterator();
+        while (events.hasNext()) {
+            events.next();
+            count++;
+        }
+        // stream, document, sequence and 500 sequences of 501 scalars
+        assertEquals(6 + 500 * 503, count);
+        List<?> list = (List<?>) yaml.load(doc);
+        assertEquals(500, list.size());
+
+        int[] range = new int[] { 20, 40 };
+        for (int number : range) {
+            long time1 = System.nanoTime();
+            for (int i = 0; i < number; i++) {
+                Scanner scanner = new ScannerImpl(new StreamReader(doc));
+                while (scanner.checkToken()) {
+                    scanner.getToken();
+                }
+            }
+            long time2 = System.nanoTime();
+            float duration = ((time2 - time1) / 1000000) / (float) number;
+            System.out.println("Duration for r=" + number + " was " + duration + " ms/scan.");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+public class ArrayQueueTest extends TestCase {
+
+    public void testFifo() {
+        ArrayQueue<Integer> queue = new ArrayQueue<Integer>(2);
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            queue.add(2 * i);
+            queue.add(2 * i + 1);
+            assertEquals(Integer.valueOf(i), queue.remove());
+        }
+        assertEquals(10, queue.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i + 10), queue.get(i));
+        }
+    }
+
+    public void testInsert() {
+        ArrayQueue<String> queue = new ArrayQueue<String>(4);
+        queue.add("a");
+        queue.add("b");
+        queue.add("c");
+        queue.remove();
+        // wrap around the end of the buffer
+        queue.add("e");
+        queue.add(2, "d");
+        queue.add(0, "a");
+        queue.add(5, "f");
+        assertEquals(6, queue.size());
+        StringBuilder builder = new StringBuilder();
+        while (!queue.isEmpty()) {
+            builder.append(queue.remove());
+        }
+        assertEquals("abcdef", builder.toString());
+    }
+
+    public void testCopyFrom() {
+        ArrayQueue<Integer> queue = new ArrayQueue<Integer>(1);
+        queue.add(1);
+        queue.add(2);
+        queue.add(3);
+        queue.remove();
+        ArrayQueue<Integer> copy = new ArrayQueue<Integer>(1);
+        copy.copyFrom(queue);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(2, copy.size());
+        assertEquals(Integer.valueOf(2), copy.get(0));
+        assertEquals(Integer.valueOf(3), copy.get(1));
+    }
+
+    public void testErrors() {
+        ArrayQueue<Integer> queue = new ArrayQueue<Integer>(5);
+        try {
+            queue.remove();
+            fail("Empty queue.");
+        } catch (NoSuchElementException e) {
+            assertEquals("The queue is empty.", e.getMessage());
+        }
+        try {
+            queue.add(1, 1);
+            fail("Index is beyond the size.");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("Index: 1, Size: 0", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import junit.framework.TestCase;
+
+public class IntStackTest extends TestCase {
+
+    public void testPushPop() {
+        IntStack stack = new IntStack(1);
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            stack.push(i);
+        }
+        assertFalse(stack.isEmpty());
+        IntStack copy = new IntStack(1);
+        copy.copyFrom(stack);
+        for (int i = 9; i >= 0; i--) {
+            assertEquals(i, stack.pop());
+        }
+        assertTrue(stack.isEmpty());
+        assertEquals(9, copy.peek());
+        assertEquals(9, copy.pop());
+        assertEquals(8, copy.peek());
+        copy.clear();
+        assertTrue(copy.isEmpty());
+        try {
+            copy.pop();
+            fail("The stack is empty.");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals("The stack is empty.", e.getMessage());
+        }
+    }
+
+    public void testToString() {
+        IntStack stack = new IntStack(2);
+        assertEquals("[]", stack.toString());
+        stack.push(3);
+        stack.push(-1);
+        stack.push(7);
+        assertEquals("[3, -1, 7]", stack.toString());
+    }
+}
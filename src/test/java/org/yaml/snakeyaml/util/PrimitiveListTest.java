@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.TypeDescription;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+public class PrimitiveListTest extends TestCase {
+
+    public void testList() {
+        PrimitiveList<Integer> list = new PrimitiveList<Integer>(new int[] { 1, 2, 3 });
+        assertEquals(Arrays.asList(1, 2, 3), list);
+        assertEquals(Integer.valueOf(2), list.set(1, 5));
+        assertEquals(5, ((int[]) list.getArray())[1]);
+        try {
+            list.add(4);
+            fail("The size is fixed.");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        try {
+            new PrimitiveList<Object>(new Integer[0]);
+            fail("Only primitives are accepted.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Array of primitives expected: [Ljava.lang.Integer;", e.getMessage());
+        }
+    }
+
+    public void testAllTypes() {
+        assertEquals("[1, 2]", new PrimitiveList<Byte>(new byte[] { 1, 2 }).toString());
+        assertEquals("[1.5]", new PrimitiveList<Float>(new float[] { 1.5f }).toString());
+        assertEquals("[a]", new PrimitiveList<Character>(new char[] { 'a' }).toString());
+        assertEquals("[true]", new PrimitiveList<Boolean>(new boolean[] { true }).toString());
+    }
+
+    public void testLoad() {
+        Yaml yaml = createYaml(false);
+        Series series = (Series) yaml.load("values: [1, -2, 0x10, 4]\nweights: [0.5, 2]\n"
+                + "names: [a, b]\nflags: [yes, no]\nempty: []\n");
+        assertTrue(series.getValues() instanceof PrimitiveList);
+        assertTrue(Arrays.equals(new int[] { 1, -2, 16, 4 },
+                (int[]) ((PrimitiveList<Integer>) series.getValues()).getArray()));
+        assertEquals(Arrays.asList(0.5, 2.0), series.getWeights());
+        assertEquals(ArrayList.class, series.getNames().getClass());
+        assertEquals(Arrays.asList(true, false), series.getFlags());
+        assertEquals(ArrayList.class, series.getEmpty().getClass());
+        assertTrue(series.getEmpty().isEmpty());
+        // the same result for the direct binding
+        Series bound = (Series) createYaml(true).load("values: [1, -2, 0x10, 4]\n");
+        assertTrue(bound.getValues() instanceof PrimitiveList);
+        assertEquals(series.getValues(), bound.getValues());
+    }
+
+    public void testListPropertyType() {
+        TypeDescription description = new TypeDescription(Series.class);
+        description.putListPropertyType("values", int.class);
+        for (boolean directBinding : new boolean[] { false, true }) {
+            Series series = (Series) createYaml(description, directBinding).load(
+                    "values: [1, 2]\n");
+            // only putPrimitiveListPropertyType() creates PrimitiveList
+            assertEquals(ArrayList.class, series.getValues().getClass());
+            assertEquals(Arrays.asList(1, 2), series.getValues());
+        }
+    }
+
+    public void testNotPrimitive() {
+        try {
+            new TypeDescription(Series.class).putPrimitiveListPropertyType("values",
+                    Integer.class);
+            fail("Only primitive classes are allowed.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Primitive class expected: java.lang.Integer", e.getMessage());
+        }
+    }
+
+    public void testRoundTrip() {
+        Yaml yaml = createYaml(false);
+        Series series = new Series();
+        series.setValues(new PrimitiveList<Integer>(new int[] { 7, 8 }));
+        Series loaded = (Series) yaml.load(yaml.dump(series));
+        assertEquals(Arrays.asList(7, 8), loaded.getValues());
+    }
+
+    private Yaml createYaml(boolean directBinding) {
+        TypeDescription description = new TypeDescription(Series.class);
+        description.putPrimitiveListPropertyType("values", int.class);
+        description.putPrimitiveListPropertyType("weights", double.class);
+        description.putPrimitiveListPropertyType("flags", boolean.class);
+        description.putPrimitiveListPropertyType("empty", long.class);
+        return createYaml(description, directBinding);
+    }
+
+    private Yaml createYaml(TypeDescription description, boolean directBinding) {
+        LoaderOptions options = new LoaderOptions();
+        options.setDirectBinding(directBinding);
+        Constructor constructor = new Constructor(Series.class);
+        constructor.addTypeDescription(description);
+        return new Yaml(constructor, new Representer(), new DumperOptions(), options,
+                new Resolver());
+    }
+
+    public static class Series {
+        private List<Integer> values;
+        private List<Double> weights;
+        private List<String> names;
+        private List<Boolean> flags;
+        private List<Long> empty;
+
+        public List<Integer> getValues() {
+            return values;
+        }
+
+        public void setValues(List<Integer> values) {
+            this.values = values;
+        }
+
+        public List<Double> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(List<Double> weights) {
+            this.weights = weights;
+        }
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public List<Boolean> getFlags() {
+            return flags;
+        }
+
+        public void setFlags(List<Boolean> flags) {
+            this.flags = flags;
+        }
+
+        public List<Long> getEmpty() {
+            return empty;
+        }
+
+        public void setEmpty(List<Long> empty) {
+            this.empty = empty;
+        }
+    }
+}
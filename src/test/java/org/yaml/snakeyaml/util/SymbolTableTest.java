@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.yaml.snakeyaml.util;
+
+import junit.framework.TestCase;
+
+public class SymbolTableTest extends TestCase {
+
+    public void testSameInstance() {
+        SymbolTable table = new SymbolTable();
+        char[] chars = "name: image: name:".toCharArray();
+        String first = table.get(chars, 0, 4);
+        assertEquals("name", first);
+        assertEquals("image", table.get(chars, 6, 5));
+        assertSame(first, table.get(chars, 13, 4));
+        // the prefix is a different symbol
+        assertEquals("nam", table.get(chars, 13, 3));
+    }
+
+    public void testLongSymbols() {
+        SymbolTable table = new SymbolTable(16, 3);
+        char[] chars = "abcdabcd".toCharArray();
+        String first = table.get(chars, 0, 4);
+        assertEquals("abcd", first);
+        assertNotSame(first, table.get(chars, 4, 4));
+        assertSame(table.get(chars, 0, 3), table.get(chars, 4, 3));
+    }
+
+    public void testCollisions() {
+        // a single entry is replaced by the next symbol
+        SymbolTable table = new SymbolTable(1, 10);
+        char[] chars = "ab".toCharArray();
+        String a = table.get(chars, 0, 1);
+        assertEquals("b", table.get(chars, 1, 1));
+        String again = table.get(chars, 0, 1);
+        assertEquals(a, again);
+        assertNotSame(a, again);
+    }
+}